@@ -0,0 +1,37 @@
+package com.kaimono.catalog.service.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookPageBenchmark {
+
+    @Param({ "20", "100" })
+    private int size;
+
+    private List<Book> books;
+
+    @Setup
+    public void setUp() {
+        var now = Instant.parse("2023-03-01T10:15:30Z");
+        books = LongStream.rangeClosed(1, size + 1)
+                .mapToObj(id -> new Book(id, "%010d".formatted(id), "Title " + id, "Author", "Publisher", 9.90,
+                        now, now, 1, "employee", "employee"))
+                .toList();
+    }
+
+    @Benchmark
+    public BookPage pageOf() {
+        return BookPage.of(books, size, BookSort.Property.ID);
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.kaimono.catalog.service.domain;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookValidationBenchmark {
+
+    private Validator validator;
+    private Book validBook;
+    private Book invalidBook;
+
+    @Setup
+    public void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        validBook = Book.of("123456789X", "Thus Spoke Zarathustra", "Friedrich Nietzsche", "Adelphi", 9.90);
+        invalidBook = Book.of("AV34567890", "", "Friedrich Nietzsche", "", 9.90);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Book>> validateValidBook() {
+        return validator.validate(validBook);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Book>> validateInvalidBook() {
+        return validator.validate(invalidBook);
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.kaimono.catalog.service.domain;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IsbnBenchmark {
+
+    private static final Pattern ISBN_PATTERN = Pattern.compile("^([0-9]{10}|[0-9]{13})$");
+
+    @Param({ "123456789X", "9780306406157", "978-0-306-40615-7" })
+    private String isbn;
+
+    @Benchmark
+    public boolean matchPattern() {
+        return ISBN_PATTERN.matcher(isbn).matches();
+    }
+
+    @Benchmark
+    public boolean normalizeAndValidate() {
+        return Isbns.isValid(Isbns.normalize(isbn));
+    }
+
+}
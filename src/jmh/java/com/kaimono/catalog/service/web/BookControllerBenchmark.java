@@ -0,0 +1,60 @@
+package com.kaimono.catalog.service.web;
+
+import com.kaimono.catalog.service.domain.Book;
+import com.kaimono.catalog.service.domain.BookPage;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookControllerBenchmark {
+
+    private BookControllerAdvice advice;
+    private WebExchangeBindException bindException;
+    private BookPage page;
+
+    @Setup
+    public void setUp() throws Exception {
+        advice = new BookControllerAdvice();
+
+        var invalidBook = Book.of("AV34567890", "", "Friedrich Nietzsche", "", 9.90);
+        var bindingResult = new BeanPropertyBindingResult(invalidBook, "book");
+        new SpringValidatorAdapter(Validation.buildDefaultValidatorFactory().getValidator())
+                .validate(invalidBook, bindingResult);
+
+        var parameter = new MethodParameter(BookController.class.getMethod("post", Mono.class), 0);
+        bindException = new WebExchangeBindException(parameter, bindingResult);
+
+        var now = Instant.parse("2023-03-01T10:15:30Z");
+        var books = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> new Book(id, "%010d".formatted(id), "Title " + id, "Author", "Publisher", 9.90,
+                        now, now, 1, "employee", "employee"))
+                .toList();
+        page = new BookPage(books, 20L);
+    }
+
+    @Benchmark
+    public Map<String, String> handleValidationException() {
+        return advice.handleValidationException(bindException);
+    }
+
+    @Benchmark
+    public String pageEntityTag() {
+        return BookEntityTags.of(page);
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.kaimono.catalog.service.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaimono.catalog.service.domain.Book;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Book book;
+    private byte[] content;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        var now = Instant.parse("2023-03-01T10:15:30Z");
+        book = new Book(394L, "1234567890", "Thus Spoke Zarathustra", "Friedrich Nietzsche", "Adelphi", 9.90,
+                now, now, 21, "employee", "employee");
+        content = objectMapper.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public Book deserialize() throws Exception {
+        return objectMapper.readValue(content, Book.class);
+    }
+
+}
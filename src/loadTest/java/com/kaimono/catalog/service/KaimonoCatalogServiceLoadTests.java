@@ -0,0 +1,218 @@
+package com.kaimono.catalog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaimono.catalog.service.domain.Book;
+import com.kaimono.catalog.service.domain.BookRepository;
+import com.kaimono.catalog.service.domain.Isbns;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import net.datafaker.Faker;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.*;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the public endpoints end to end against Postgres 14 in a container. Tokens are
+ * signed by an in-process key instead of Keycloak, so nothing but Docker is needed.
+ * Sized through {@code -PloadTest.books}, {@code -PloadTest.requests} and {@code -PloadTest.concurrency}.
+ */
+@Testcontainers
+@Import(KaimonoCatalogServiceLoadTests.LocalJwtConfig.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class KaimonoCatalogServiceLoadTests {
+
+    private static final int BOOKS = Integer.getInteger("loadTest.books", 10_000);
+    private static final int REQUESTS = Integer.getInteger("loadTest.requests", 20_000);
+    private static final int CONCURRENCY = Integer.getInteger("loadTest.concurrency", 64);
+    private static final long FIRST_ISBN = 978_000_000_000L;
+
+    private static final RSAKey signingKey = generateSigningKey();
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresql =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:14.4"));
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @LocalServerPort
+    private int port;
+
+    private WebClient webClient;
+    private final List<LoadRun.LoadResult> results = new ArrayList<>();
+
+    @BeforeAll
+    void seedCatalog() {
+        var faker = new Faker();
+        Flux.range(0, BOOKS)
+                .map(i -> fakeBook(faker, isbnOf(i)))
+                .buffer(500)
+                .concatMap(bookRepository::insertAllIfAbsent)
+                .blockLast();
+
+        webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .defaultHeaders(headers -> headers.setBearerAuth(employeeToken()))
+                .build();
+    }
+
+    @Test
+    @Order(1)
+    void getBookPage() {
+        measure("GET /books", i -> webClient.get()
+                .uri("/books?after={after}&limit=20", ThreadLocalRandom.current().nextLong(BOOKS))
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .toBodilessEntity());
+    }
+
+    @Test
+    @Order(2)
+    void getBookByIsbn() {
+        measure("GET /books/{isbn}", i -> webClient.get()
+                .uri("/books/{isbn}", isbnOf(ThreadLocalRandom.current().nextInt(BOOKS)))
+                .retrieve()
+                .toBodilessEntity());
+    }
+
+    @Test
+    @Order(3)
+    void postBook() {
+        var faker = new Faker();
+        measure("POST /books", i -> webClient.post()
+                .uri("/books")
+                .bodyValue(fakeBook(faker, isbnOf(BOOKS + i)))
+                .retrieve()
+                .toBodilessEntity());
+    }
+
+    @Test
+    @Order(4)
+    void putBook() {
+        var faker = new Faker();
+        measure("PUT /books/{isbn}", i -> {
+            var isbn = isbnOf(ThreadLocalRandom.current().nextInt(BOOKS));
+            return webClient.put()
+                    .uri("/books/{isbn}", isbn)
+                    .bodyValue(fakeBook(faker, isbn))
+                    .retrieve()
+                    .toBodilessEntity();
+        });
+    }
+
+    @AfterAll
+    void report() throws Exception {
+        System.out.printf("%nLoad test: %d books, %d requests per endpoint, concurrency %d%n", BOOKS, REQUESTS, CONCURRENCY);
+        results.forEach(System.out::println);
+
+        var reportFile = Path.of(System.getProperty("loadTest.reportFile", "build/reports/loadTest/results.json"));
+        Files.createDirectories(reportFile.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), results);
+    }
+
+    /**
+     * Calls are numbered across the warmup and the measured run, so endpoints that need a
+     * fresh ISBN per request never collide between the two.
+     */
+    private void measure(String endpoint, LongFunction<Mono<?>> call) {
+        var warmupRequests = REQUESTS / 10;
+        new LoadRun(endpoint + " (warmup)").run(warmupRequests, CONCURRENCY, call);
+
+        var result = new LoadRun(endpoint).run(REQUESTS, CONCURRENCY, i -> call.apply(warmupRequests + i)).result();
+        results.add(result);
+        assertThat(result.failures()).as("failed requests on %s", endpoint).isZero();
+    }
+
+    private static String isbnOf(long i) {
+        return Isbns.withCheckDigit(Long.toString(FIRST_ISBN + i));
+    }
+
+    private static Book fakeBook(Faker faker, String isbn) {
+        var fakeBook = faker.book();
+        return Book.of(isbn, fakeBook.title(), fakeBook.author(), fakeBook.publisher(), (double) faker.random().nextInt(5, 50));
+    }
+
+    private static String employeeToken() {
+        var encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(signingKey)));
+        var claims = JwtClaimsSet.builder()
+                .subject("isabelle")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plus(1, ChronoUnit.DAYS))
+                .claim("roles", List.of("employee"))
+                .build();
+
+        return encoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+    }
+
+    private static RSAKey generateSigningKey() {
+        try {
+            var generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            var keyPair = generator.generateKeyPair();
+            return new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                    .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not generate the load test signing key.", e);
+        }
+    }
+
+    @TestConfiguration
+    static class LocalJwtConfig {
+
+        @Bean
+        ReactiveJwtDecoder reactiveJwtDecoder() throws Exception {
+            return NimbusReactiveJwtDecoder.withPublicKey(signingKey.toRSAPublicKey()).build();
+        }
+
+    }
+
+    @DynamicPropertySource
+    private static void postgresqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.username", postgresql::getUsername);
+        registry.add("spring.r2dbc.password", postgresql::getPassword);
+        registry.add("spring.flyway.url", postgresql::getJdbcUrl);
+        registry.add("spring.r2dbc.url", () ->
+                String.format("r2dbc:postgresql://%s:%s/%s",
+                        postgresql.getHost(),
+                        postgresql.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT),
+                        postgresql.getDatabaseName())
+        );
+    }
+
+}
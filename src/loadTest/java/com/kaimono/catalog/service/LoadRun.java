@@ -0,0 +1,78 @@
+package com.kaimono.catalog.service;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Fires {@code requests} calls at a fixed {@code concurrency} and records every latency
+ * in an HDR histogram, so tail percentiles are exact rather than sampled.
+ */
+class LoadRun {
+
+    private static final long MAX_TRACKED_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+    private final String endpoint;
+    private final Histogram latencies = new ConcurrentHistogram(MAX_TRACKED_LATENCY, 3);
+    private final AtomicLong failures = new AtomicLong();
+    private Duration elapsed = Duration.ZERO;
+
+    LoadRun(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    LoadRun run(long requests, int concurrency, LongFunction<Mono<?>> call) {
+        var start = System.nanoTime();
+        Flux.range(0, Math.toIntExact(requests))
+                .flatMap(i -> timed(call.apply(i)), concurrency)
+                .blockLast();
+
+        elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return this;
+    }
+
+    private Mono<Void> timed(Mono<?> call) {
+        return Mono.defer(() -> {
+            var start = System.nanoTime();
+            return call
+                    .doOnSuccess(ignored -> latencies.recordValue(Math.min(System.nanoTime() - start, MAX_TRACKED_LATENCY)))
+                    .doOnError(ignored -> failures.incrementAndGet())
+                    .onErrorResume(ignored -> Mono.empty())
+                    .then();
+        });
+    }
+
+    LoadResult result() {
+        return new LoadResult(
+                endpoint,
+                latencies.getTotalCount(),
+                failures.get(),
+                latencies.getTotalCount() / Math.max(elapsed.toNanos() / 1e9, 1e-9),
+                millisAt(50.0),
+                millisAt(99.0),
+                millisAt(99.9),
+                latencies.getMaxValue() / 1e6);
+    }
+
+    private double millisAt(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    record LoadResult(String endpoint, long requests, long failures, double requestsPerSecond,
+                      double p50Millis, double p99Millis, double p999Millis, double maxMillis) {
+
+        @Override
+        public String toString() {
+            return "%-22s %8d req %6d err %10.1f req/s   p50 %8.2f ms   p99 %8.2f ms   p999 %8.2f ms   max %8.2f ms"
+                    .formatted(endpoint, requests, failures, requestsPerSecond, p50Millis, p99Millis, p999Millis, maxMillis);
+        }
+
+    }
+
+}
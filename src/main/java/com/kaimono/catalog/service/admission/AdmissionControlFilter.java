@@ -0,0 +1,140 @@
+package com.kaimono.catalog.service.admission;
+
+import com.kaimono.catalog.service.config.KaimonoAdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sheds load before it reaches the connection pool. Every route gets its own {@link AimdLimiter}; reads may fill
+ * the whole limit while writes only get {@code write-share} of it, and a request over the limit fails fast with
+ * 503 and {@code Retry-After} instead of queueing for a connection. Streaming responses, the change feed and listings
+ * negotiated as NDJSON or server-sent events, are left alone, as their duration is the length of the stream rather
+ * than a sign of load.
+ * <p>
+ * Declared by {@link com.kaimono.catalog.service.config.AdmissionConfig} rather than scanned, so web slice tests
+ * do not pick it up.
+ */
+public class AdmissionControlFilter implements WebFilter {
+
+    static final String DEFAULT_ROUTE = "default";
+
+    private static final PathPattern LIMITED_PATHS = PathPatternParser.defaultInstance.parse("/books/**");
+
+    private static final List<MediaType> LISTING_MEDIA_TYPES =
+            List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON, MediaType.TEXT_EVENT_STREAM);
+
+    private final List<Route> routes = new ArrayList<>();
+    private final Route defaultRoute;
+    private final double writeShare;
+    private final String retryAfter;
+
+    public AdmissionControlFilter(KaimonoAdmissionProperties kaimonoAdmissionProperties, MeterRegistry meterRegistry) {
+        var backoffRatio = kaimonoAdmissionProperties.backoffRatio();
+        kaimonoAdmissionProperties.routes().forEach((pattern, limit) -> routes.add(new Route(
+                PathPatternParser.defaultInstance.parse(pattern), pattern,
+                new AimdLimiter(limit, backoffRatio), meterRegistry)));
+
+        this.defaultRoute = new Route(LIMITED_PATHS, DEFAULT_ROUTE,
+                new AimdLimiter(kaimonoAdmissionProperties.defaultLimit(), backoffRatio), meterRegistry);
+        this.writeShare = kaimonoAdmissionProperties.writeShare();
+        this.retryAfter = String.valueOf(kaimonoAdmissionProperties.retryAfter().toSeconds());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var request = exchange.getRequest();
+        var path = request.getPath().pathWithinApplication();
+        if (!LIMITED_PATHS.matches(path) || isStreaming(request))
+            return chain.filter(exchange);
+
+        var route = routes.stream()
+                .filter(candidate -> candidate.pattern().matches(path))
+                .findFirst()
+                .orElse(defaultRoute);
+
+        var read = request.getMethod() == HttpMethod.GET || request.getMethod() == HttpMethod.HEAD;
+        if (!route.limiter().tryAcquire(read ? 1.0 : writeShare)) {
+            (read ? route.rejectedReads() : route.rejectedWrites()).increment();
+            var response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfter);
+            return response.setComplete();
+        }
+
+        var start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        route.limiter().release();
+                        return;
+                    }
+
+                    var status = exchange.getResponse().getStatusCode();
+                    var failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                    route.limiter().release(System.nanoTime() - start, failed);
+                });
+    }
+
+    // only the listing and the change feed stream, and the listing only when the client prefers a streaming type
+    private static boolean isStreaming(ServerHttpRequest request) {
+        if (request.getMethod() != HttpMethod.GET)
+            return false;
+
+        var path = request.getPath().pathWithinApplication().value();
+        if (path.equals("/books/changes"))
+            return true;
+        if (!path.equals("/books"))
+            return false;
+
+        var accepted = new ArrayList<>(request.getHeaders().getAccept());
+        MimeTypeUtils.sortBySpecificity(accepted);
+        return accepted.stream()
+                .filter(mediaType -> LISTING_MEDIA_TYPES.stream().anyMatch(mediaType::equalsTypeAndSubtype))
+                .findFirst()
+                .filter(mediaType -> !mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_JSON))
+                .isPresent();
+    }
+
+    private record Route(PathPattern pattern, AimdLimiter limiter, Counter rejectedReads, Counter rejectedWrites) {
+
+        Route(PathPattern pattern, String name, AimdLimiter limiter, MeterRegistry meterRegistry) {
+            this(pattern, limiter, rejected(name, "read", meterRegistry), rejected(name, "write", meterRegistry));
+
+            Gauge.builder("kaimono.admission.limit", limiter, AimdLimiter::limit)
+                    .description("Current concurrency limit of the route")
+                    .tag("route", name)
+                    .register(meterRegistry);
+            Gauge.builder("kaimono.admission.in.flight", limiter, AimdLimiter::inFlight)
+                    .description("Requests of the route currently admitted")
+                    .tag("route", name)
+                    .register(meterRegistry);
+        }
+
+        private static Counter rejected(String route, String kind, MeterRegistry meterRegistry) {
+            return Counter.builder("kaimono.admission.rejected")
+                    .description("Requests shed with 503 because the route was at its limit")
+                    .tag("route", route)
+                    .tag("kind", kind)
+                    .register(meterRegistry);
+        }
+
+    }
+
+}
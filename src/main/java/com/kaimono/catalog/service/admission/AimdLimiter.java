@@ -0,0 +1,69 @@
+package com.kaimono.catalog.service.admission;
+
+import com.kaimono.catalog.service.config.KaimonoAdmissionProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit adjusted by additive increase, multiplicative decrease: a request finishing within the
+ * latency threshold while the limiter is at least half busy raises the limit by about one per limit's worth
+ * of requests, and a slow or failed one scales it down by the backoff ratio.
+ */
+final class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private double limit;
+
+    AimdLimiter(KaimonoAdmissionProperties.Limit limit, double backoffRatio) {
+        this.minLimit = limit.min();
+        this.maxLimit = Math.max(limit.min(), limit.max());
+        this.latencyThresholdNanos = limit.latencyThreshold().toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.min(Math.max(limit.initial(), minLimit), maxLimit);
+    }
+
+    /**
+     * Admits a request if fewer than {@code share} of the limit are in flight, so lower priority requests
+     * are shed before the limiter is full.
+     */
+    boolean tryAcquire(double share) {
+        var admitted = Math.max(1, (int) (limit() * share));
+        while (true) {
+            var current = inFlight.get();
+            if (current >= admitted)
+                return false;
+            if (inFlight.compareAndSet(current, current + 1))
+                return true;
+        }
+    }
+
+    /**
+     * Releases a request whose latency says nothing about the load, e.g. one cancelled by its client.
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    void release(long latencyNanos, boolean failed) {
+        var busy = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (failed || latencyNanos > latencyThresholdNanos)
+                limit = Math.max(minLimit, limit * backoffRatio);
+            else if (busy * 2 >= limit)
+                limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    synchronized double limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.kaimono.catalog.service.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.kaimono.catalog.service.config.KaimonoCacheProperties;
+import com.kaimono.catalog.service.domain.Book;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bounded ISBN lookup cache. Absent books are cached as {@link Optional#empty()} with their own time to live,
+ * and concurrent misses for the same ISBN share a single in-flight load. Writes also drop the book's
+ * {@link BookJsonCache} entry.
+ */
+@Component
+public class BookCache {
+
+    private final AsyncCache<String, Optional<Book>> cache;
+    private final BookJsonCache bookJsonCache;
+
+    public BookCache(KaimonoCacheProperties kaimonoCacheProperties, BookJsonCache bookJsonCache,
+                     MeterRegistry meterRegistry) {
+        this.bookJsonCache = bookJsonCache;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(kaimonoCacheProperties.maximumSize())
+                .expireAfter(new BookExpiry(
+                        kaimonoCacheProperties.timeToLive(),
+                        kaimonoCacheProperties.negativeTimeToLive()))
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "books");
+    }
+
+    public Mono<Book> get(String isbn, Function<String, Mono<Book>> loader) {
+        // the copy keeps a cancelled subscriber from cancelling the load shared with the other callers
+        return Mono.fromFuture(() -> cache.get(isbn, (key, executor) -> load(key, loader)).copy())
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    /**
+     * Resolves every ISBN, serving cached ones directly and loading all the others with a single call to
+     * {@code loader}. ISBNs the loader does not return are cached as absent.
+     */
+    public Mono<Map<String, Optional<Book>>> getAll(Set<String> isbns, Function<Set<String>, Flux<Book>> loader) {
+        return Mono.fromFuture(() -> cache.getAll(isbns, (keys, executor) -> loadAll(keys, loader)).copy());
+    }
+
+    public void put(Book book) {
+        cache.put(book.isbn(), CompletableFuture.completedFuture(Optional.of(book)));
+        bookJsonCache.invalidate(book.isbn());
+    }
+
+    public void invalidate(String isbn) {
+        cache.synchronous().invalidate(isbn);
+        bookJsonCache.invalidate(isbn);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+        bookJsonCache.invalidateAll();
+    }
+
+    private static CompletableFuture<Optional<Book>> load(String isbn, Function<String, Mono<Book>> loader) {
+        return loader.apply(isbn)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .toFuture();
+    }
+
+    private static CompletableFuture<Map<String, Optional<Book>>> loadAll(Set<? extends String> isbns,
+                                                                          Function<Set<String>, Flux<Book>> loader) {
+        return loader.apply(Set.copyOf(isbns))
+                .collectMap(Book::isbn, Optional::of)
+                .map(foundBooks -> {
+                    Map<String, Optional<Book>> books = new HashMap<>(foundBooks);
+                    isbns.forEach(isbn -> books.putIfAbsent(isbn, Optional.empty()));
+                    return books;
+                })
+                .toFuture();
+    }
+
+    private record BookExpiry(Duration timeToLive, Duration negativeTimeToLive)
+            implements Expiry<String, Optional<Book>> {
+
+        @Override
+        public long expireAfterCreate(String isbn, Optional<Book> book, long currentTime) {
+            return book.isPresent() ? timeToLive.toNanos() : negativeTimeToLive.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String isbn, Optional<Book> book, long currentTime, long currentDuration) {
+            return expireAfterCreate(isbn, book, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String isbn, Optional<Book> book, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.kaimono.catalog.service.cache;
+
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * Keeps {@link BookCache} coherent across instances: every change recorded in the outbox is broadcast by a
+ * trigger on the {@value #CHANNEL} channel, and each instance evicts the ISBN it carries. Listens on a
+ * dedicated primary connection outside the pool, since notifications are neither pooled nor replicated.
+ * Anything could have changed while that connection was down, so the whole cache is dropped on every (re)connect.
+ */
+@Component
+public class BookCacheCoherenceListener implements SmartLifecycle {
+
+    static final String CHANNEL = "book_change";
+    static final String ALL = "*";
+
+    private static final Logger log = LoggerFactory.getLogger(BookCacheCoherenceListener.class);
+
+    private final BookCache bookCache;
+    private final ConnectionFactory connectionFactory;
+    private volatile Disposable subscription;
+
+    public BookCacheCoherenceListener(BookCache bookCache, R2dbcProperties r2dbcProperties) {
+        this(bookCache, ConnectionFactories.get(listenerOptionsOf(r2dbcProperties)));
+    }
+
+    BookCacheCoherenceListener(BookCache bookCache, ConnectionFactory connectionFactory) {
+        this.bookCache = bookCache;
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    public void start() {
+        subscription = invalidations().subscribe(isbn -> {
+            if (ALL.equals(isbn))
+                bookCache.invalidateAll();
+            else
+                bookCache.invalidate(isbn);
+        });
+    }
+
+    @Override
+    public void stop() {
+        if (subscription != null)
+            subscription.dispose();
+
+        subscription = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null;
+    }
+
+    /**
+     * ISBNs to evict, or {@value #ALL} once listening has (re)started.
+     */
+    Flux<String> invalidations() {
+        return Flux.usingWhen(
+                        Mono.from(connectionFactory.create()).cast(PostgresqlConnection.class),
+                        this::listen,
+                        PostgresqlConnection::close)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Lost the {} notification channel, reconnecting: {}",
+                                CHANNEL, signal.failure().getMessage())));
+    }
+
+    // notifications are subscribed to before LISTEN is issued, so none can slip in between
+    private Flux<String> listen(PostgresqlConnection connection) {
+        var startListening = connection.createStatement("LISTEN " + CHANNEL)
+                .execute()
+                .flatMap(PostgresqlResult::getRowsUpdated)
+                .then(Mono.just(ALL));
+
+        return Flux.merge(connection.getNotifications().mapNotNull(Notification::getParameter), startListening)
+                .concatWith(Mono.error(() -> new IllegalStateException("The notification connection was closed.")));
+    }
+
+    private static ConnectionFactoryOptions listenerOptionsOf(R2dbcProperties r2dbcProperties) {
+        var options = ConnectionFactoryOptions.parse(r2dbcProperties.getUrl()).mutate();
+        if (r2dbcProperties.getUsername() != null)
+            options.option(ConnectionFactoryOptions.USER, r2dbcProperties.getUsername());
+        if (r2dbcProperties.getPassword() != null)
+            options.option(ConnectionFactoryOptions.PASSWORD, r2dbcProperties.getPassword());
+
+        return options.build();
+    }
+
+}
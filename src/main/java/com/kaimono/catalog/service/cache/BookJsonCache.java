@@ -0,0 +1,76 @@
+package com.kaimono.catalog.service.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kaimono.catalog.service.config.KaimonoCacheProperties;
+import com.kaimono.catalog.service.domain.Book;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Books already encoded as UTF-8 JSON, so hot titles are not run through Jackson on every request. An entry is only
+ * served for the exact id and version it was encoded from, and {@link BookCache} drops it whenever the book is
+ * written, so the bytes can never be older than the book they are served for.
+ */
+@Component
+public class BookJsonCache {
+
+    private final Cache<String, EncodedBook> cache;
+    private final ObjectWriter writer;
+
+    public BookJsonCache(KaimonoCacheProperties kaimonoCacheProperties, ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(kaimonoCacheProperties.maximumSize())
+                .expireAfterWrite(kaimonoCacheProperties.timeToLive())
+                .recordStats()
+                .build();
+        this.writer = objectMapper.writerFor(Book.class);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "books.json");
+    }
+
+    /**
+     * Returns the JSON encoding of {@code book}. Callers must not modify the returned array, as it is shared.
+     */
+    public byte[] encode(Book book) {
+        var encoded = cache.getIfPresent(book.isbn());
+        if (encoded != null && encoded.isOf(book))
+            return encoded.json();
+
+        var json = write(book);
+        if (book.id() != null)
+            cache.put(book.isbn(), new EncodedBook(book.id(), book.version(), json));
+
+        return json;
+    }
+
+    public void invalidate(String isbn) {
+        cache.invalidate(isbn);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private byte[] write(Book book) {
+        try {
+            return writer.writeValueAsBytes(book);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("The book with ISBN " + book.isbn() + " could not be encoded.", e);
+        }
+    }
+
+    private record EncodedBook(long id, int version, byte[] json) {
+
+        boolean isOf(Book book) {
+            return book.id() != null && book.id() == id && book.version() == version;
+        }
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.kaimono.catalog.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Lets concurrent callers asking for the same key share one in-flight load. Nothing is kept once the load
+ * completes, so unlike {@link BookCache} this never serves a result to a caller that arrives afterwards.
+ * Callers are counted as leaders, which start a load, or followers, which join one.
+ */
+public class SingleFlight<K, V> {
+
+    static final String METRIC = "kaimono.single.flight.calls";
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.leaders = counter(name, "leader", meterRegistry);
+        this.followers = counter(name, "follower", meterRegistry);
+    }
+
+    public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        return Mono.defer(() -> {
+            var started = new CompletableFuture<V>();
+            var load = inFlight.putIfAbsent(key, started);
+            if (load == null) {
+                leaders.increment();
+                load = started;
+                loader.apply(key).toFuture().whenComplete((value, ex) -> {
+                    inFlight.remove(key, started);
+                    if (ex != null)
+                        started.completeExceptionally(ex);
+                    else
+                        started.complete(value);
+                });
+            } else {
+                followers.increment();
+            }
+
+            // the copy keeps a cancelled caller from cancelling the load shared with the others
+            return Mono.fromFuture(load.copy());
+        });
+    }
+
+    private static Counter counter(String name, String role, MeterRegistry meterRegistry) {
+        return Counter.builder(METRIC)
+                .description("Calls that started a load (leader) or joined one already in flight (follower)")
+                .tag("flight", name)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+}
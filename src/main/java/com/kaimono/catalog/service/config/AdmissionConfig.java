@@ -0,0 +1,19 @@
+package com.kaimono.catalog.service.config;
+
+import com.kaimono.catalog.service.admission.AdmissionControlFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AdmissionConfig {
+
+    @Bean
+    @ConditionalOnProperty(value = "kaimono.admission.enabled", havingValue = "true", matchIfMissing = true)
+    public AdmissionControlFilter admissionControlFilter(KaimonoAdmissionProperties kaimonoAdmissionProperties,
+                                                         MeterRegistry meterRegistry) {
+        return new AdmissionControlFilter(kaimonoAdmissionProperties, meterRegistry);
+    }
+
+}
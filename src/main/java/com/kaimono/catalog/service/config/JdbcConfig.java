@@ -0,0 +1,32 @@
+package com.kaimono.catalog.service.config;
+
+import com.kaimono.catalog.service.domain.BookRepository;
+import com.kaimono.catalog.service.domain.JdbcBookRepository;
+import com.kaimono.catalog.service.jdbc.JdbcExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.ReactiveAuditorAware;
+
+/**
+ * Serves books from {@link JdbcBookRepository} under the {@code jdbc} profile. The R2DBC repository stays in the
+ * context for the change outbox and the components that do not go through {@link BookRepository}.
+ */
+@Configuration
+@Profile("jdbc")
+public class JdbcConfig {
+
+    @Bean
+    public JdbcExecutor jdbcExecutor(KaimonoJdbcProperties kaimonoJdbcProperties, MeterRegistry meterRegistry) {
+        return new JdbcExecutor(kaimonoJdbcProperties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public BookRepository jdbcBookRepository(JdbcExecutor jdbcExecutor, ReactiveAuditorAware<String> auditorAware) {
+        return new JdbcBookRepository(jdbcExecutor, auditorAware);
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.kaimono.catalog.service.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+@Validated
+@ConfigurationProperties(prefix = "kaimono.admission")
+public record KaimonoAdmissionProperties(
+
+        @NotNull
+        @Positive(message = "write-share must be greater than zero.")
+        @DecimalMax(value = "1.0", message = "write-share cannot be greater than one.")
+        Double writeShare,
+
+        @NotNull
+        @Positive(message = "backoff-ratio must be greater than zero.")
+        @DecimalMax(value = "1.0", inclusive = false, message = "backoff-ratio must be less than one.")
+        Double backoffRatio,
+
+        @NotNull
+        @DurationMin(seconds = 1, message = "retry-after must be at least one second.")
+        Duration retryAfter,
+
+        @NotNull
+        @Valid
+        Limit defaultLimit,
+
+        Map<String, @Valid Limit> routes
+
+) {
+
+        public KaimonoAdmissionProperties {
+                routes = routes == null ? Map.of() : new LinkedHashMap<>(routes);
+        }
+
+        public record Limit(
+
+                @NotNull
+                @Positive(message = "initial must be greater than zero.")
+                Integer initial,
+
+                @NotNull
+                @Positive(message = "min must be greater than zero.")
+                Integer min,
+
+                @NotNull
+                @Positive(message = "max must be greater than zero.")
+                Integer max,
+
+                @NotNull
+                @DurationMin(nanos = 1, message = "latency-threshold must be greater than zero.")
+                Duration latencyThreshold
+
+        ) { }
+
+}
@@ -0,0 +1,19 @@
+package com.kaimono.catalog.service.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+
+@Validated
+@ConfigurationProperties(prefix = "kaimono.batch")
+public record KaimonoBatchProperties(
+
+        @NotNull
+        @Positive(message = "chunk-size must be greater than zero.")
+        @Max(value = 10000, message = "chunk-size cannot exceed 10000 books per statement.")
+        Integer chunkSize
+
+) { }
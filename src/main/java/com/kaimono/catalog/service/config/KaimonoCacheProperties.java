@@ -0,0 +1,28 @@
+package com.kaimono.catalog.service.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+
+@Validated
+@ConfigurationProperties(prefix = "kaimono.cache")
+public record KaimonoCacheProperties(
+
+        @NotNull
+        @Positive(message = "maximum-size must be greater than zero.")
+        Long maximumSize,
+
+        @NotNull
+        @DurationMin(message = "time-to-live cannot be negative.")
+        Duration timeToLive,
+
+        @NotNull
+        @DurationMin(message = "negative-time-to-live cannot be negative.")
+        Duration negativeTimeToLive
+
+) { }
@@ -0,0 +1,32 @@
+package com.kaimono.catalog.service.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+
+@Validated
+@ConfigurationProperties(prefix = "kaimono.changes")
+public record KaimonoChangesProperties(
+
+        @NotNull
+        @DurationMin(millis = 1, message = "poll-interval must be greater than zero.")
+        Duration pollInterval,
+
+        @NotNull
+        @Positive(message = "batch-size must be greater than zero.")
+        Integer batchSize,
+
+        @NotNull
+        @DurationMin(millis = 1, message = "retention must be greater than zero.")
+        Duration retention,
+
+        @NotNull
+        @DurationMin(millis = 1, message = "cleanup-interval must be greater than zero.")
+        Duration cleanupInterval
+
+) { }
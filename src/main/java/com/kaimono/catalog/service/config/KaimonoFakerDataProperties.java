@@ -1,13 +1,12 @@
 package com.kaimono.catalog.service.config;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
-import org.hibernate.validator.constraints.time.DurationMin;
+import jakarta.validation.constraints.PositiveOrZero;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
-import java.time.Duration;
-
 
 @Validated
 @ConfigurationProperties(prefix = "kaimono.faker.data")
@@ -22,7 +21,24 @@ public record KaimonoFakerDataProperties(
         Integer maxPrice,
 
         @NotNull
-        @DurationMin(message = "frequency cannot be negative.")
-        Duration frequency
+        @Positive(message = "count must be greater than zero.")
+        @Max(value = 1_000_000_000L, message = "count cannot be greater than 1000000000.")
+        Long count,
+
+        @NotNull
+        @PositiveOrZero(message = "rate cannot be negative.")
+        Integer rate,
+
+        @NotNull
+        @Positive(message = "batch-size must be greater than zero.")
+        @Max(value = 10000, message = "batch-size cannot be greater than 10000.")
+        Integer batchSize,
+
+        @NotNull
+        @Positive(message = "parallelism must be greater than zero.")
+        Integer parallelism,
+
+        @NotNull
+        Long seed
 
 ) { }
@@ -0,0 +1,44 @@
+package com.kaimono.catalog.service.config;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+
+@Validated
+@ConfigurationProperties(prefix = "kaimono.jdbc")
+public record KaimonoJdbcProperties(
+
+        @NotBlank(message = "url must be defined.")
+        String url,
+
+        String username,
+
+        String password,
+
+        @NotNull
+        @Positive(message = "maximum-pool-size must be greater than zero.")
+        Integer maximumPoolSize,
+
+        @NotNull
+        @DurationMin(millis = 250, message = "connection-timeout must be at least 250ms.")
+        Duration connectionTimeout,
+
+        @NotNull
+        @PositiveOrZero(message = "prepare-threshold cannot be negative.")
+        Integer prepareThreshold,
+
+        @NotNull
+        @PositiveOrZero(message = "prepared-statement-cache-queries cannot be negative.")
+        Integer preparedStatementCacheQueries,
+
+        @NotNull
+        Boolean virtualThreads
+
+) { }
@@ -0,0 +1,34 @@
+package com.kaimono.catalog.service.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+
+@Validated
+@ConfigurationProperties(prefix = "kaimono.page")
+public record KaimonoPageProperties(
+
+        @NotNull
+        @Positive(message = "default-size must be greater than zero.")
+        Integer defaultSize,
+
+        @NotNull
+        @Positive(message = "max-size must be greater than zero.")
+        Integer maxSize,
+
+        @NotNull
+        @Positive(message = "stream-fetch-size must be greater than zero.")
+        Integer streamFetchSize
+
+) {
+
+        public int sizeOf(Integer requestedSize) {
+                if (requestedSize == null || requestedSize <= 0)
+                        return Math.min(defaultSize, maxSize);
+
+                return Math.min(requestedSize, maxSize);
+        }
+
+}
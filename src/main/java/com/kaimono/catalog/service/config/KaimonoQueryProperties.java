@@ -0,0 +1,19 @@
+package com.kaimono.catalog.service.config;
+
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+
+@Validated
+@ConfigurationProperties(prefix = "kaimono.query")
+public record KaimonoQueryProperties(
+
+        @NotNull
+        @DurationMin(message = "slow-query-threshold cannot be negative.")
+        Duration slowQueryThreshold
+
+) { }
@@ -0,0 +1,28 @@
+package com.kaimono.catalog.service.config;
+
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.List;
+
+
+@Validated
+@ConfigurationProperties(prefix = "kaimono.replica")
+public record KaimonoReplicaProperties(
+
+        List<String> urls,
+
+        @NotNull
+        @DurationMin(message = "failover-cooldown cannot be negative.")
+        Duration failoverCooldown
+
+) {
+
+        public KaimonoReplicaProperties {
+                urls = urls == null ? List.of() : List.copyOf(urls);
+        }
+
+}
@@ -0,0 +1,32 @@
+package com.kaimono.catalog.service.config;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+
+@Validated
+@ConfigurationProperties(prefix = "kaimono.snapshot")
+public record KaimonoSnapshotProperties(
+
+        @NotNull
+        @DurationMin(millis = 1, message = "refresh-interval must be greater than zero.")
+        Duration refreshInterval,
+
+        @NotNull
+        @Positive(message = "fetch-size must be greater than zero.")
+        Integer fetchSize,
+
+        @NotNull
+        @Positive(message = "batch-size must be greater than zero.")
+        Integer batchSize,
+
+        @NotNull
+        @Positive(message = "max-incremental-changes must be greater than zero.")
+        Integer maxIncrementalChanges
+
+) { }
@@ -20,6 +20,8 @@ public class SecurityConfig {
                 .authorizeExchange(exchange ->
                         exchange.pathMatchers(HttpMethod.GET, "/", "/books/**")
                                 .permitAll()
+                        .pathMatchers("/actuator/**")
+                                .permitAll()
                         .anyExchange()
                                 .hasRole("employee"))
                 .oauth2ResourceServer(ServerHttpSecurity.OAuth2ResourceServerSpec::jwt)
@@ -2,7 +2,6 @@ package com.kaimono.catalog.service.domain;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import org.springframework.data.annotation.*;
 
@@ -14,7 +13,7 @@ public record Book(
         Long id,
 
         @NotBlank(message = "The book ISBN must be defined.")
-        @Pattern(regexp = "^([0-9]{10}|[0-9]{13})$", message = "The ISBN format must be valid.")
+        @Isbn
         String isbn,
 
         @NotBlank(message = "The book title must be defined.")
@@ -47,6 +46,10 @@ public record Book(
 
 ) {
 
+        public Book {
+                isbn = Isbns.normalize(isbn);
+        }
+
         public static Book of(String isbn, String title, String author, String publisher, Double price) {
                 return new Book(null, isbn, title, author, publisher, price, null, null,0, null, null);
         }
@@ -0,0 +1,33 @@
+package com.kaimono.catalog.service.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("book_change")
+public record BookChange(
+
+        @Id
+        @JsonIgnore
+        Long id,
+
+        @JsonIgnore
+        Long txid,
+
+        String isbn,
+
+        Type type,
+
+        int version
+
+) {
+
+        public enum Type { CREATED, UPDATED, DELETED }
+
+        @JsonProperty("offset")
+        public BookChangeOffset offset() {
+                return new BookChangeOffset(txid, id);
+        }
+
+}
@@ -0,0 +1,62 @@
+package com.kaimono.catalog.service.domain;
+
+import com.kaimono.catalog.service.config.KaimonoChangesProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps the outbox bounded by deleting released changes older than the configured retention. Offsets before the
+ * cleaned range are gone for good: a consumer resuming from one, through {@code since} or {@code Last-Event-ID},
+ * silently misses the deleted changes and has to resync from the full listing instead. Every instance runs the
+ * cleanup, which is harmless as deleting the same rows twice is a no-op.
+ */
+@Component
+public class BookChangeCleaner implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(BookChangeCleaner.class);
+
+    private final BookChangeRepository bookChangeRepository;
+    private final KaimonoChangesProperties kaimonoChangesProperties;
+    private volatile Disposable subscription;
+
+    public BookChangeCleaner(BookChangeRepository bookChangeRepository, KaimonoChangesProperties kaimonoChangesProperties) {
+        this.bookChangeRepository = bookChangeRepository;
+        this.kaimonoChangesProperties = kaimonoChangesProperties;
+    }
+
+    @Override
+    public void start() {
+        subscription = cleanups().subscribe();
+    }
+
+    @Override
+    public void stop() {
+        if (subscription != null)
+            subscription.dispose();
+
+        subscription = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null;
+    }
+
+    Flux<Long> cleanups() {
+        var retentionSeconds = kaimonoChangesProperties.retention().toMillis() / 1000.0;
+        return Flux.interval(kaimonoChangesProperties.cleanupInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> bookChangeRepository.deleteReleasedOlderThan(retentionSeconds)
+                        .doOnNext(deleted -> log.debug("Deleted {} book changes past retention", deleted))
+                        .onErrorResume(ex -> {
+                            log.warn("Could not clean up the book change outbox: {}", ex.getMessage());
+                            return Mono.empty();
+                        }), 1);
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.kaimono.catalog.service.domain;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Position in the change stream, ordered by writing transaction first and row id second.
+ * Rendered as {@code "<txid>-<id>"}, which is what {@code since} and {@code Last-Event-ID} take back.
+ */
+public record BookChangeOffset(long txid, long id) {
+
+        public static final BookChangeOffset ORIGIN = new BookChangeOffset(0, 0);
+
+        public static BookChangeOffset parse(String offset) {
+                var separator = offset.indexOf('-');
+                try {
+                        return new BookChangeOffset(
+                                Long.parseLong(offset.substring(0, separator)),
+                                Long.parseLong(offset.substring(separator + 1)));
+                } catch (IndexOutOfBoundsException | NumberFormatException ex) {
+                        throw new InvalidBookChangeOffsetException(offset);
+                }
+        }
+
+        public boolean isAfter(BookChangeOffset other) {
+                return txid != other.txid ? txid > other.txid : id > other.id;
+        }
+
+        @JsonValue
+        @Override
+        public String toString() {
+                return txid + "-" + id;
+        }
+
+}
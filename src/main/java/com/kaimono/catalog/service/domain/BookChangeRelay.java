@@ -0,0 +1,86 @@
+package com.kaimono.catalog.service.domain;
+
+import com.kaimono.catalog.service.config.KaimonoChangesProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Relays the outbox to any number of subscribers with a single shared poll of the latest released
+ * offset. Subscribers only query for changes once that head moves past their own cursor, and then
+ * read at their own pace, so a slow consumer never buffers events in memory.
+ */
+@Component
+public class BookChangeRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(BookChangeRelay.class);
+
+    private final BookChangeRepository bookChangeRepository;
+    private final KaimonoChangesProperties kaimonoChangesProperties;
+    private final Flux<BookChangeOffset> heads;
+
+    public BookChangeRelay(BookChangeRepository bookChangeRepository, KaimonoChangesProperties kaimonoChangesProperties) {
+        this.bookChangeRepository = bookChangeRepository;
+        this.kaimonoChangesProperties = kaimonoChangesProperties;
+        this.heads = Flux.interval(kaimonoChangesProperties.pollInterval())
+                .startWith(0L)
+                .onBackpressureDrop()
+                .concatMap(tick -> latestReleased()
+                        .onErrorResume(ex -> {
+                            log.warn("Could not poll the book change outbox: {}", ex.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .distinctUntilChanged()
+                .replay(1)
+                .refCount();
+    }
+
+    /**
+     * Streams every change after {@code since} in order, then follows new ones as they are released.
+     * Without {@code since}, only changes released from now on are streamed. An offset older than the outbox
+     * retention resumes after whatever {@link BookChangeCleaner} has already deleted.
+     */
+    public Flux<BookChange> changesSince(BookChangeOffset since) {
+        var start = since != null
+                ? Mono.just(since)
+                : latestReleased().defaultIfEmpty(BookChangeOffset.ORIGIN);
+
+        return start.flatMapMany(offset -> {
+            var cursor = new AtomicReference<>(offset);
+            return heads
+                    .filter(head -> head.isAfter(cursor.get()))
+                    .onBackpressureLatest()
+                    .concatMap(head -> readReleasedAfter(cursor), 1);
+        });
+    }
+
+    private Flux<BookChange> readReleasedAfter(AtomicReference<BookChangeOffset> cursor) {
+        var batchSize = kaimonoChangesProperties.batchSize();
+        return nextBatch(cursor)
+                .expand(batch -> batch.size() < batchSize ? Mono.empty() : nextBatch(cursor))
+                .flatMapIterable(Function.identity());
+    }
+
+    private Mono<List<BookChange>> nextBatch(AtomicReference<BookChangeOffset> cursor) {
+        return Mono.defer(() -> {
+            var offset = cursor.get();
+            return bookChangeRepository.findReleasedAfter(offset.txid(), offset.id(), kaimonoChangesProperties.batchSize())
+                    .collectList()
+                    .doOnNext(batch -> {
+                        if (!batch.isEmpty())
+                            cursor.set(batch.get(batch.size() - 1).offset());
+                    });
+        });
+    }
+
+    private Mono<BookChangeOffset> latestReleased() {
+        return bookChangeRepository.findLatestReleased().map(BookChange::offset);
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.kaimono.catalog.service.domain;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Only changes of transactions older than every transaction still running are released, so
+ * nothing can ever appear behind an offset that has already been handed out.
+ */
+public interface BookChangeRepository extends ReactiveCrudRepository<BookChange, Long> {
+
+    @Query("""
+            select * from book_change
+            where (txid, id) > (:txid, :id)
+              and txid < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+            order by txid, id
+            limit :limit
+            """)
+    Flux<BookChange> findReleasedAfter(long txid, long id, int limit);
+
+    @Query("""
+            select * from book_change
+            where txid < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+            order by txid desc, id desc
+            limit 1
+            """)
+    Mono<BookChange> findLatestReleased();
+
+    /**
+     * Deletes released changes recorded more than {@code retentionSeconds} ago, measured on the database clock.
+     * Changes still unreleased are kept whatever their age, as no reader has been handed them yet.
+     */
+    @Modifying
+    @Query("""
+            delete from book_change
+            where recorded_at < now() - make_interval(secs => :retentionSeconds)
+              and txid < pg_snapshot_xmin(pg_current_snapshot())::text::bigint
+            """)
+    Mono<Long> deleteReleasedOlderThan(double retentionSeconds);
+
+}
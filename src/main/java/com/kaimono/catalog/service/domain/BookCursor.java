@@ -0,0 +1,76 @@
+package com.kaimono.catalog.service.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Position in a listing: the sort value and id of the last book of a page, so the next page resumes after them
+ * even when that book has been deleted since. Rendered as {@code "<id>"} in id order and {@code "<value>:<id>"}
+ * otherwise, with prices in decimal, creation dates in epoch microseconds and titles in base64url, which is what
+ * {@code after} takes back for the same sort property.
+ */
+public record BookCursor(BookSort.Property property, Object value, long id) {
+
+        public static BookCursor of(Book book, BookSort.Property property) {
+                var value = switch (property) {
+                        case ID -> null;
+                        case PRICE -> book.price();
+                        case TITLE -> book.title();
+                        case CREATED_DATE -> book.createdDate();
+                };
+
+                return new BookCursor(property, value, book.id());
+        }
+
+        public static BookCursor parse(String cursor, BookSort.Property property) {
+                try {
+                        if (property == BookSort.Property.ID)
+                                return new BookCursor(property, null, Long.parseLong(cursor));
+
+                        var separator = cursor.lastIndexOf(':');
+                        var value = cursor.substring(0, separator);
+                        var id = Long.parseLong(cursor.substring(separator + 1));
+                        return new BookCursor(property, switch (property) {
+                                case ID -> null;
+                                case PRICE -> priceOf(value);
+                                case TITLE -> new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+                                case CREATED_DATE -> createdDateOf(value);
+                        }, id);
+                } catch (IndexOutOfBoundsException | IllegalArgumentException | DateTimeException | ArithmeticException ex) {
+                        throw new InvalidBookCursorException(cursor);
+                }
+        }
+
+        // NaN and infinities parse as doubles but never compare as a keyset position
+        private static double priceOf(String value) {
+                var price = Double.parseDouble(value);
+                if (!Double.isFinite(price))
+                        throw new IllegalArgumentException("The price " + value + " is not finite.");
+
+                return price;
+        }
+
+        // books are only ever created after the epoch, and far earlier dates are out of range for a timestamp column
+        private static Instant createdDateOf(String value) {
+                var createdDate = Instant.EPOCH.plus(Long.parseLong(value), ChronoUnit.MICROS);
+                if (createdDate.isBefore(Instant.EPOCH))
+                        throw new DateTimeException("The creation date " + createdDate + " is before the epoch.");
+
+                return createdDate;
+        }
+
+        @Override
+        public String toString() {
+                return switch (property) {
+                        case ID -> Long.toString(id);
+                        case PRICE -> value + ":" + id;
+                        case TITLE -> Base64.getUrlEncoder().withoutPadding()
+                                .encodeToString(((String) value).getBytes(StandardCharsets.UTF_8)) + ":" + id;
+                        case CREATED_DATE -> ChronoUnit.MICROS.between(Instant.EPOCH, (Instant) value) + ":" + id;
+                };
+        }
+
+}
@@ -0,0 +1,11 @@
+package com.kaimono.catalog.service.domain;
+
+import java.util.List;
+
+public record BookFacets(List<PublisherFacet> publishers, List<PriceFacet> prices) {
+
+        public record PublisherFacet(String publisher, long books) { }
+
+        public record PriceFacet(double from, double to, long books) { }
+
+}
@@ -0,0 +1,7 @@
+package com.kaimono.catalog.service.domain;
+
+public record BookFilter(Double minPrice, Double maxPrice, String publisher, String author) {
+
+        public static final BookFilter NONE = new BookFilter(null, null, null, null);
+
+}
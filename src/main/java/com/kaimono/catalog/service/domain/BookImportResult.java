@@ -0,0 +1,19 @@
+package com.kaimono.catalog.service.domain;
+
+public record BookImportResult(long index, String isbn, Status status, String message) {
+
+        public enum Status { CREATED, ALREADY_EXISTS, INVALID }
+
+        public static BookImportResult created(long index, String isbn) {
+                return new BookImportResult(index, isbn, Status.CREATED, null);
+        }
+
+        public static BookImportResult alreadyExists(long index, String isbn) {
+                return new BookImportResult(index, isbn, Status.ALREADY_EXISTS, new BookAlreadyExistsException(isbn).getMessage());
+        }
+
+        public static BookImportResult invalid(long index, String isbn, String message) {
+                return new BookImportResult(index, isbn, Status.INVALID, message);
+        }
+
+}
@@ -0,0 +1,88 @@
+package com.kaimono.catalog.service.domain;
+
+import com.kaimono.catalog.service.cache.BookCache;
+import com.kaimono.catalog.service.config.KaimonoBatchProperties;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class BookImportService {
+
+    private final BookRepository bookRepository;
+    private final BookCache bookCache;
+    private final Validator validator;
+    private final KaimonoBatchProperties kaimonoBatchProperties;
+
+    public BookImportService(BookRepository bookRepository, BookCache bookCache, Validator validator,
+                             KaimonoBatchProperties kaimonoBatchProperties) {
+        this.bookRepository = bookRepository;
+        this.bookCache = bookCache;
+        this.validator = validator;
+        this.kaimonoBatchProperties = kaimonoBatchProperties;
+    }
+
+    /**
+     * Validates and inserts the books chunk by chunk, one multi-row statement per chunk,
+     * reporting the outcome of every book in the order it was received.
+     */
+    public Flux<BookImportResult> importBooks(Flux<Book> books) {
+        return books.index()
+                .buffer(kaimonoBatchProperties.chunkSize())
+                .concatMap(this::importChunk);
+    }
+
+    private Flux<BookImportResult> importChunk(List<Tuple2<Long, Book>> chunk) {
+        var violations = chunk.stream()
+                .collect(Collectors.toMap(Tuple2::getT1, item -> validator.validate(item.getT2())));
+
+        var validBooks = chunk.stream()
+                .filter(item -> violations.get(item.getT1()).isEmpty())
+                .map(Tuple2::getT2)
+                .toList();
+
+        return insert(validBooks)
+                .flatMapIterable(createdIsbns -> chunk.stream()
+                        .map(item -> resultOf(item, violations, createdIsbns))
+                        .toList());
+    }
+
+    private Mono<Set<String>> insert(List<Book> books) {
+        if (books.isEmpty())
+            return Mono.just(new HashSet<>());
+
+        return bookRepository.insertAllIfAbsent(books)
+                .doOnNext(bookCache::put)
+                .map(Book::isbn)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static BookImportResult resultOf(Tuple2<Long, Book> item,
+                                             Map<Long, Set<ConstraintViolation<Book>>> violations,
+                                             Set<String> createdIsbns) {
+        var index = item.getT1();
+        var book = item.getT2();
+        var bookViolations = violations.get(index);
+
+        if (!bookViolations.isEmpty())
+            return BookImportResult.invalid(index, book.isbn(), bookViolations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(" ")));
+
+        // a repeated ISBN inside the same chunk is only inserted once, for its first occurrence
+        return createdIsbns.remove(book.isbn())
+                ? BookImportResult.created(index, book.isbn())
+                : BookImportResult.alreadyExists(index, book.isbn());
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.kaimono.catalog.service.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public record BookLookup(List<Book> books, List<String> missing) {
+
+        public static BookLookup of(Set<String> isbns, Map<String, Optional<Book>> lookedUpBooks) {
+                var books = new ArrayList<Book>(isbns.size());
+                var missing = new ArrayList<String>();
+
+                for (var isbn : isbns)
+                        lookedUpBooks.getOrDefault(isbn, Optional.empty())
+                                .ifPresentOrElse(books::add, () -> missing.add(isbn));
+
+                return new BookLookup(books, missing);
+        }
+
+}
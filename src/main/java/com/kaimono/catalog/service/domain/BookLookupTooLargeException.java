@@ -0,0 +1,9 @@
+package com.kaimono.catalog.service.domain;
+
+public class BookLookupTooLargeException extends RuntimeException {
+
+    public BookLookupTooLargeException(int maxSize) {
+        super("At most " + maxSize + " books can be looked up at once.");
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.kaimono.catalog.service.domain;
+
+import java.util.List;
+
+public record BookPage(List<Book> books, BookCursor nextCursor) {
+
+        /**
+         * Builds a page out of a keyset query that fetched one row more than {@code size}:
+         * the extra row only tells whether another page exists and is never returned.
+         */
+        public static BookPage of(List<Book> books, int size, BookSort.Property property) {
+                if (books.size() <= size)
+                        return new BookPage(books, null);
+
+                var pageBooks = books.subList(0, size);
+                return new BookPage(pageBooks, BookCursor.of(pageBooks.get(size - 1), property));
+        }
+
+}
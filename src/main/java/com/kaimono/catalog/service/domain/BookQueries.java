@@ -0,0 +1,46 @@
+package com.kaimono.catalog.service.domain;
+
+/**
+ * Statements declared on {@link BookRepository} that {@link JdbcBookRepository} runs as well, kept in one place
+ * so both data layers issue the same SQL.
+ */
+final class BookQueries {
+
+    static final String DELETE_BY_ISBN = """
+            with deleted as (
+                delete from book where isbn = :isbn
+                returning isbn, version
+            )
+            insert into book_change (isbn, type, version)
+            select isbn, 'DELETED', version from deleted
+            """;
+
+    static final String FIND_BY_ISBN = "select * from book where isbn = :isbn";
+
+    static final String FIND_ALL_BY_ISBN = "select * from book where isbn = any(:isbns)";
+
+    static final String SEARCH = """
+            select * from book
+            where search_vector @@ websearch_to_tsquery('simple', :query)
+            order by ts_rank(search_vector, websearch_to_tsquery('simple', :query)) desc, id
+            limit :limit offset :offset
+            """;
+
+    static final String SEARCH_BY_PREFIX = """
+            select * from book
+            where search_vector @@ to_tsquery('simple', :prefixQuery)
+               or author ilike :authorPattern
+            order by ts_rank(search_vector, to_tsquery('simple', :prefixQuery)) desc, id
+            limit :limit offset :offset
+            """;
+
+    static final String SEARCH_BY_SIMILARITY = """
+            select * from book
+            where title % :query or author % :query
+            order by greatest(similarity(title, :query), similarity(author, :query)) desc, id
+            limit :limit offset :offset
+            """;
+
+    private BookQueries() {}
+
+}
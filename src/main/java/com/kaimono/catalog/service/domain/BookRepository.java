@@ -4,14 +4,27 @@ import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-public interface BookRepository extends ReactiveCrudRepository<Book, Long> {
+public interface BookRepository extends ReactiveCrudRepository<Book, Long>, CustomBookRepository {
 
     @Modifying
     @Transactional
-    @Query("delete from book where isbn = :isbn")
+    @Query(BookQueries.DELETE_BY_ISBN)
     Mono<Void> deleteByIsbn(String isbn);
 
     Mono<Book> findByIsbn(String isbn);
+
+    @Query(BookQueries.FIND_ALL_BY_ISBN)
+    Flux<Book> findAllByIsbn(String[] isbns);
+
+    @Query(BookQueries.SEARCH)
+    Flux<Book> search(String query, int limit, long offset);
+
+    @Query(BookQueries.SEARCH_BY_PREFIX)
+    Flux<Book> searchByPrefix(String prefixQuery, String authorPattern, int limit, long offset);
+
+    @Query(BookQueries.SEARCH_BY_SIMILARITY)
+    Flux<Book> searchBySimilarity(String query, int limit, long offset);
 }
@@ -0,0 +1,14 @@
+package com.kaimono.catalog.service.domain;
+
+public enum BookSearchMode {
+
+    /** Web-search syntax over title, author and publisher: words, "quoted phrases", or and -exclusions. */
+    QUERY,
+
+    /** Every word is matched as a prefix, and the whole query as a prefix of the author name. */
+    PREFIX,
+
+    /** Trigram similarity against title and author, tolerant to typos. */
+    FUZZY
+
+}
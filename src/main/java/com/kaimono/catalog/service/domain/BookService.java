@@ -1,57 +1,215 @@
 package com.kaimono.catalog.service.domain;
 
+import com.kaimono.catalog.service.cache.BookCache;
+import com.kaimono.catalog.service.cache.SingleFlight;
+import com.kaimono.catalog.service.config.KaimonoPageProperties;
+import com.kaimono.catalog.service.routing.DatabaseRoute;
+import com.kaimono.catalog.service.snapshot.BookSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 public class BookService {
 
+    private static final double DEFAULT_PRICE_BUCKET_WIDTH = 10.0;
+    // a cent, so that a single request cannot ask for one bucket per distinct price
+    private static final double MIN_PRICE_BUCKET_WIDTH = 0.01;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern LIKE_WILDCARD = Pattern.compile("[\\\\%_]");
+
     private final BookRepository bookRepository;
+    private final BookCache bookCache;
+    private final KaimonoPageProperties kaimonoPageProperties;
+    private final Optional<BookSnapshot> bookSnapshot;
+    private final SingleFlight<Routed<PageQuery>, BookPage> pageFlight;
+    private final SingleFlight<Routed<FacetsQuery>, BookFacets> facetsFlight;
+    private final SingleFlight<Routed<SearchQuery>, List<Book>> searchFlight;
 
-    public BookService(BookRepository bookRepository) {
+    public BookService(BookRepository bookRepository, BookCache bookCache, KaimonoPageProperties kaimonoPageProperties,
+                       Optional<BookSnapshot> bookSnapshot, MeterRegistry meterRegistry) {
         this.bookRepository = bookRepository;
+        this.bookCache = bookCache;
+        this.kaimonoPageProperties = kaimonoPageProperties;
+        this.bookSnapshot = bookSnapshot;
+        this.pageFlight = new SingleFlight<>("books.page", meterRegistry);
+        this.facetsFlight = new SingleFlight<>("books.facets", meterRegistry);
+        this.searchFlight = new SingleFlight<>("books.search", meterRegistry);
+    }
+
+    /**
+     * Served from the {@link BookSnapshot} when it is enabled and loaded, unless the caller is pinned to the
+     * primary, as the snapshot trails the database by up to a refresh interval.
+     */
+    public Mono<BookPage> viewBookPage(BookFilter filter, BookSort sort, BookCursor after, Integer limit) {
+        var pageSize = kaimonoPageProperties.sizeOf(limit);
+        var fromDatabase = coalesced(pageFlight, new PageQuery(filter, sort, after, pageSize), () ->
+                bookRepository.findPage(filter, sort, after, pageSize + 1)
+                        .collectList()
+                        .map(books -> BookPage.of(books, pageSize, sort.property())));
+
+        if (bookSnapshot.isEmpty())
+            return fromDatabase;
+
+        return Mono.deferContextual(caller -> DatabaseRoute.isPinnedToPrimary(caller)
+                ? fromDatabase
+                : bookSnapshot.get().findPage(filter, sort, after, pageSize + 1)
+                        .map(books -> Mono.just(BookPage.of(books, pageSize, sort.property())))
+                        .orElse(fromDatabase));
+    }
+
+    public Mono<BookFacets> viewBookFacets(BookFilter filter, Double priceBucketWidth) {
+        var validWidth = priceBucketWidth == null
+                || Double.isFinite(priceBucketWidth) && priceBucketWidth >= MIN_PRICE_BUCKET_WIDTH;
+        if (!validWidth)
+            return Mono.error(() -> new InvalidPriceBucketWidthException(priceBucketWidth, MIN_PRICE_BUCKET_WIDTH));
+
+        var bucketWidth = priceBucketWidth == null ? DEFAULT_PRICE_BUCKET_WIDTH : priceBucketWidth;
+
+        return coalesced(facetsFlight, new FacetsQuery(filter, bucketWidth), () ->
+                bookRepository.findFacets(filter, bucketWidth));
+    }
+
+    public Flux<Book> searchBooks(String query, BookSearchMode mode, Integer page, Integer limit) {
+        var pageSize = kaimonoPageProperties.sizeOf(limit);
+        var offset = (long) Math.max(page == null ? 0 : page, 0) * pageSize;
+
+        return coalesced(searchFlight, new SearchQuery(query, mode, pageSize, offset), () -> {
+            Flux<Book> books = switch (mode) {
+                case QUERY -> bookRepository.search(query, pageSize, offset);
+                case PREFIX -> {
+                    var prefixQuery = prefixQueryOf(query);
+                    yield prefixQuery.isEmpty()
+                            ? Flux.empty()
+                            : bookRepository.searchByPrefix(prefixQuery, likePrefixOf(query), pageSize, offset);
+                }
+                case FUZZY -> bookRepository.searchBySimilarity(query, pageSize, offset);
+            };
+
+            return books.collectList();
+        }).flatMapIterable(Function.identity());
     }
 
-    public Flux<Book> viewBookList() {
-        return bookRepository.findAll();
+    public Flux<Book> streamBookList(Long after) {
+        return bookRepository.streamAll(after == null ? 0L : after, kaimonoPageProperties.streamFetchSize())
+                .contextWrite(DatabaseRoute::readOnly);
     }
 
     public Mono<Book> viewBookDetails(String isbn) {
-        return bookRepository.findByIsbn(isbn)
-                .switchIfEmpty(Mono.error(() -> new BookNotFoundException(isbn)));
+        var normalizedIsbn = Isbns.normalize(isbn);
+        if (!Isbns.isWellFormed(normalizedIsbn))
+            return Mono.error(() -> new InvalidIsbnException(isbn));
+
+        return Mono.deferContextual(caller -> bookCache.get(normalizedIsbn, key ->
+                        bookRepository.findByIsbn(key).contextWrite(primaryFor(caller))))
+                .switchIfEmpty(Mono.error(() -> new BookNotFoundException(normalizedIsbn)));
+    }
+
+    public Mono<BookLookup> viewBookDetails(Collection<String> isbns) {
+        var distinctIsbns = new LinkedHashSet<String>();
+        for (var isbn : isbns) {
+            var normalizedIsbn = Isbns.normalize(isbn);
+            if (!Isbns.isWellFormed(normalizedIsbn))
+                return Mono.error(() -> new InvalidIsbnException(isbn));
+
+            distinctIsbns.add(normalizedIsbn);
+        }
+        if (distinctIsbns.size() > kaimonoPageProperties.maxSize())
+            return Mono.error(() -> new BookLookupTooLargeException(kaimonoPageProperties.maxSize()));
+
+        return Mono.deferContextual(caller -> bookCache.getAll(distinctIsbns, missingIsbns ->
+                        bookRepository.findAllByIsbn(missingIsbns.toArray(String[]::new)).contextWrite(primaryFor(caller))))
+                .map(books -> BookLookup.of(distinctIsbns, books));
     }
 
     public Mono<Book> addBookToCatalog(Book book) {
-        return bookRepository.findByIsbn(book.isbn())
-                .flatMap(prevBook -> Mono.<Book>error(() -> new BookAlreadyExistsException(prevBook.isbn())))
-                .switchIfEmpty(Mono.just(book).flatMap(bookRepository::save));
+        return bookRepository.insertIfAbsent(book)
+                .switchIfEmpty(Mono.error(() -> new BookAlreadyExistsException(book.isbn())))
+                .doOnNext(bookCache::put);
     }
 
     public Mono<Void> removeBookFromCatalog(String isbn) {
-        return bookRepository.deleteByIsbn(isbn);
+        var normalizedIsbn = Isbns.normalize(isbn);
+        if (!Isbns.isWellFormed(normalizedIsbn))
+            return Mono.error(() -> new InvalidIsbnException(isbn));
+
+        return bookRepository.deleteByIsbn(normalizedIsbn)
+                .doOnSuccess(ignored -> bookCache.invalidate(normalizedIsbn));
     }
 
     public Mono<Book> editBookDetails(String isbn, Book newBook) {
-        return bookRepository.findByIsbn(isbn)
-                .flatMap(prevBook -> Mono.just(editBook(prevBook, newBook)).flatMap(bookRepository::save))
-                .switchIfEmpty(Mono.just(newBook).flatMap(bookRepository::save));
-    }
-
-    private static Book editBook(Book prevBook, Book newBook) {
-        return new Book(
-                prevBook.id(),
-                prevBook.isbn(),
-                newBook.title(),
-                newBook.author(),
-                newBook.publisher(),
-                newBook.price(),
-                prevBook.createdDate(),
-                prevBook.lastModifiedDate(),
-                prevBook.version(),
-                prevBook.createdBy(),
-                prevBook.lastModifiedBy()
-        );
+        var normalizedIsbn = Isbns.normalize(isbn);
+        if (!Isbns.isWellFormed(normalizedIsbn))
+            return Mono.error(() -> new InvalidIsbnException(isbn));
+
+        return bookRepository.upsert(normalizedIsbn, newBook)
+                .switchIfEmpty(Mono.defer(() -> bookRepository.findByIsbn(normalizedIsbn)
+                        .hasElement()
+                        .flatMap(exists -> Mono.<Book>error(exists
+                                ? new BookVersionMismatchException(normalizedIsbn, newBook.version())
+                                : new BookNotFoundException(normalizedIsbn)))))
+                .doOnNext(bookCache::put);
+    }
+
+    /**
+     * Identical reads in flight at the same time share one query. Callers pinned to the primary never join
+     * a read that may be served by a replica, so read-your-writes still holds for them.
+     */
+    private static <Q, V> Mono<V> coalesced(SingleFlight<Routed<Q>, V> flight, Q query, Supplier<Mono<V>> loader) {
+        return Mono.deferContextual(caller -> flight.get(
+                new Routed<>(query, DatabaseRoute.isPinnedToPrimary(caller)),
+                ignored -> loader.get().contextWrite(readOnlyFor(caller))));
+    }
+
+    /**
+     * The cache and single flights subscribe to loaders on their own, so the caller's context is carried over by hand.
+     */
+    private static Function<Context, Context> readOnlyFor(ContextView caller) {
+        return context -> DatabaseRoute.readOnly(context.putAll(caller));
+    }
+
+    /**
+     * Cache misses always load from the primary: a lagging replica could otherwise put back a row that a write has
+     * just evicted and keep serving it for the whole time to live, to every caller including the one that wrote it.
+     */
+    private static Function<Context, Context> primaryFor(ContextView caller) {
+        return context -> DatabaseRoute.primary(context.putAll(caller));
     }
 
+    /**
+     * Turns free text into a tsquery matching every word as a prefix, e.g. {@code "thus spo"} into
+     * {@code "thus:* & spo:*"}. Anything but letters and digits is dropped so the result is always valid syntax.
+     */
+    static String prefixQueryOf(String query) {
+        return Arrays.stream(NON_WORD.split(query))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    static String likePrefixOf(String query) {
+        return LIKE_WILDCARD.matcher(query.strip()).replaceAll("\\\\$0") + "%";
+    }
+
+    private record Routed<Q>(Q query, boolean primary) {}
+
+    private record PageQuery(BookFilter filter, BookSort sort, BookCursor after, int pageSize) {}
+
+    private record FacetsQuery(BookFilter filter, double bucketWidth) {}
+
+    private record SearchQuery(String query, BookSearchMode mode, int pageSize, long offset) {}
+
 }
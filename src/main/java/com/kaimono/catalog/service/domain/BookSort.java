@@ -0,0 +1,28 @@
+package com.kaimono.catalog.service.domain;
+
+import org.springframework.data.domain.Sort;
+
+public record BookSort(Property property, Sort.Direction direction) {
+
+        public static final BookSort DEFAULT = new BookSort(Property.ID, Sort.Direction.ASC);
+
+        public enum Property {
+
+                ID("id"),
+                PRICE("price"),
+                TITLE("title"),
+                CREATED_DATE("created_date");
+
+                private final String column;
+
+                Property(String column) {
+                        this.column = column;
+                }
+
+                public String column() {
+                        return column;
+                }
+
+        }
+
+}
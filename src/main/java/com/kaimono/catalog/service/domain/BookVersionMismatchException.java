@@ -0,0 +1,9 @@
+package com.kaimono.catalog.service.domain;
+
+public class BookVersionMismatchException extends RuntimeException {
+
+    public BookVersionMismatchException(String isbn, int version) {
+        super("The book with ISBN " + isbn + " is no longer at version " + version + ".");
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.kaimono.catalog.service.domain;
+
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface CustomBookRepository {
+
+    /**
+     * Reads up to {@code limit} books matching the filter in the requested order, resuming after the
+     * position {@code after} when one is given, whether or not its book still exists. Paging is keyset-based on the sort property and the id.
+     */
+    Flux<Book> findPage(BookFilter filter, BookSort sort, BookCursor after, int limit);
+
+    /**
+     * Counts the books matching the filter per publisher and per price bucket of {@code priceBucketWidth},
+     * in a single aggregated query.
+     */
+    Mono<BookFacets> findFacets(BookFilter filter, double priceBucketWidth);
+
+    /**
+     * Streams every book with an id greater than {@code after}, in id order, through a server-side cursor
+     * that fetches {@code fetchSize} rows at a time as downstream demand arrives.
+     */
+    @Transactional(readOnly = true)
+    Flux<Book> streamAll(long after, int fetchSize);
+
+    /**
+     * Inserts the book with its audit metadata in a single statement.
+     * Completes empty when a book with the same ISBN already exists.
+     */
+    Mono<Book> insertIfAbsent(Book book);
+
+    /**
+     * Inserts the books with one multi-row statement and returns the rows that were actually created,
+     * skipping every book whose ISBN already exists.
+     */
+    Flux<Book> insertAllIfAbsent(List<Book> books);
+
+    /**
+     * Inserts the book under {@code isbn} or updates its details in a single statement. A non-zero version
+     * on {@code book} only ever updates, and must match the stored one: when it does not, or when the book no
+     * longer exists, nothing is written and the result completes empty.
+     */
+    Mono<Book> upsert(String isbn, Book book);
+
+}
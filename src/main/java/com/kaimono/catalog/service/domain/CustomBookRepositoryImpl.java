@@ -0,0 +1,317 @@
+package com.kaimono.catalog.service.domain;
+
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.R2dbcType;
+import org.springframework.data.domain.ReactiveAuditorAware;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class CustomBookRepositoryImpl implements CustomBookRepository {
+
+    // every write records its change in the outbox within the same statement, hence the same transaction
+    private static final String INSERT_INTO = """
+            with inserted as (
+                insert into book (isbn, title, author, publisher, price,
+                                  created_date, last_modified_date, version, created_by, last_modified_by)
+                values
+            """;
+
+    // audit columns are shared by every row of a statement and bound only once
+    private static final String INSERT_ROW = """
+                (:isbn%1$d, :title%1$d, :author%1$d, :publisher%1$d, :price%1$d, :now, :now, :version, :auditor, :auditor)""";
+
+    private static final String ON_CONFLICT_DO_NOTHING = """
+
+                on conflict (isbn) do nothing
+                returning *
+            ), recorded as (
+                insert into book_change (isbn, type, version)
+                select isbn, 'CREATED', version from inserted
+            )
+            select * from inserted
+            """;
+
+    // xmax is only zero on a freshly inserted row version, which tells creations apart from updates
+    static final String UPSERT = """
+            with upserted as (
+                insert into book as stored (isbn, title, author, publisher, price,
+                                            created_date, last_modified_date, version, created_by, last_modified_by)
+                values (:isbn, :title, :author, :publisher, :price, :now, :now, :version, :auditor, :auditor)
+                on conflict (isbn) do update
+                    set title = excluded.title,
+                        author = excluded.author,
+                        publisher = excluded.publisher,
+                        price = excluded.price,
+                        last_modified_date = excluded.last_modified_date,
+                        last_modified_by = excluded.last_modified_by,
+                        version = stored.version + 1
+                returning *, xmax = 0 as created
+            ), recorded as (
+                insert into book_change (isbn, type, version)
+                select isbn, case when created then 'CREATED' else 'UPDATED' end, version from upserted
+            )
+            select * from upserted
+            """;
+
+    // a versioned edit never inserts: a book deleted since it was read must not come back at version 1
+    static final String UPDATE_IF_VERSION = """
+            with updated as (
+                update book
+                    set title = :title,
+                        author = :author,
+                        publisher = :publisher,
+                        price = :price,
+                        last_modified_date = :now,
+                        last_modified_by = :auditor,
+                        version = version + 1
+                    where isbn = :isbn and version = :expectedVersion
+                returning *
+            ), recorded as (
+                insert into book_change (isbn, type, version)
+                select isbn, 'UPDATED', version from updated
+            )
+            select * from updated
+            """;
+
+    private static final String FACETS = """
+            select publisher, bucket, count(*) as books, grouping(publisher) as by_bucket
+            from (
+                select publisher, cast(floor(price / :bucketWidth) as bigint) as bucket
+                from book
+                where %s
+            ) filtered
+            group by grouping sets ((publisher), (bucket))
+            """;
+
+    static final String STREAM_ALL = "select * from book where id > :after order by id";
+
+    // mirrors the initial value Spring Data assigns to a primitive @Version property on insert
+    static final int INITIAL_VERSION = 1;
+
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+    private final ReactiveAuditorAware<String> auditorAware;
+
+    public CustomBookRepositoryImpl(R2dbcEntityTemplate r2dbcEntityTemplate, ReactiveAuditorAware<String> auditorAware) {
+        this.r2dbcEntityTemplate = r2dbcEntityTemplate;
+        this.auditorAware = auditorAware;
+    }
+
+    @Override
+    public Flux<Book> findPage(BookFilter filter, BookSort sort, BookCursor after, int limit) {
+        var bindings = new HashMap<String, Object>();
+        var query = pageQueryOf(filter, sort, after, limit, bindings);
+
+        return bindAll(r2dbcEntityTemplate.getDatabaseClient().sql(query), bindings)
+                .map((row, metadata) -> r2dbcEntityTemplate.getConverter().read(Book.class, row, metadata))
+                .all();
+    }
+
+    @Override
+    public Mono<BookFacets> findFacets(BookFilter filter, double priceBucketWidth) {
+        var bindings = new HashMap<String, Object>();
+        var facetsQuery = r2dbcEntityTemplate.getDatabaseClient()
+                .sql(facetsQueryOf(filter, priceBucketWidth, bindings));
+
+        return bindAll(facetsQuery, bindings)
+                .map((row, metadata) -> new FacetRow(
+                        row.get("publisher", String.class),
+                        row.get("bucket", Long.class),
+                        row.get("books", Long.class),
+                        row.get("by_bucket", Integer.class) == 1))
+                .all()
+                .collectList()
+                .map(facetRows -> facetsOf(facetRows, priceBucketWidth));
+    }
+
+    @Override
+    public Flux<Book> streamAll(long after, int fetchSize) {
+        return r2dbcEntityTemplate.getDatabaseClient()
+                .sql(STREAM_ALL)
+                    .bind("after", after)
+                    .filter(statement -> statement.fetchSize(fetchSize))
+                .map((row, metadata) -> r2dbcEntityTemplate.getConverter().read(Book.class, row, metadata))
+                .all();
+    }
+
+    @Override
+    public Mono<Book> insertIfAbsent(Book book) {
+        return insertAllIfAbsent(List.of(book)).singleOrEmpty();
+    }
+
+    @Override
+    public Flux<Book> insertAllIfAbsent(List<Book> books) {
+        if (books.isEmpty())
+            return Flux.empty();
+
+        return currentAuditor()
+                .flatMapMany(auditor -> {
+                    var insertStatement = r2dbcEntityTemplate.getDatabaseClient()
+                            .sql(insertStatementOf(books.size()))
+                                .bind("now", Instant.now())
+                                .bind("version", INITIAL_VERSION)
+                                .bind("auditor", nullable(auditor.orElse(null)));
+
+                    for (int row = 0; row < books.size(); row++)
+                        insertStatement = bindRow(insertStatement, row, books.get(row));
+
+                    return insertStatement
+                            .map((row, metadata) -> r2dbcEntityTemplate.getConverter().read(Book.class, row, metadata))
+                            .all();
+                });
+    }
+
+    @Override
+    public Mono<Book> upsert(String isbn, Book book) {
+        return currentAuditor()
+                .flatMap(auditor -> {
+                    var statement = r2dbcEntityTemplate.getDatabaseClient()
+                            .sql(book.version() > 0 ? UPDATE_IF_VERSION : UPSERT)
+                                .bind("isbn", isbn)
+                                .bind("title", book.title())
+                                .bind("author", book.author())
+                                .bind("publisher", nullable(book.publisher()))
+                                .bind("price", book.price())
+                                .bind("now", Instant.now())
+                                .bind("auditor", nullable(auditor.orElse(null)));
+
+                    return (book.version() > 0
+                                    ? statement.bind("expectedVersion", book.version())
+                                    : statement.bind("version", INITIAL_VERSION))
+                            .map((row, metadata) -> r2dbcEntityTemplate.getConverter().read(Book.class, row, metadata))
+                            .one();
+                });
+    }
+
+    /**
+     * The keyset page query for {@link #findPage}, adding the values it binds to {@code bindings}. The cursor
+     * carries the sort value itself, so the page resumes correctly even when its row has been deleted since.
+     */
+    static String pageQueryOf(BookFilter filter, BookSort sort, BookCursor after, int limit,
+                              Map<String, Object> bindings) {
+        var conditions = new ArrayList<String>();
+        addFilterConditions(filter, conditions, bindings);
+
+        var column = sort.property().column();
+        var direction = sort.direction().isAscending() ? "asc" : "desc";
+        if (after != null) {
+            var comparison = sort.direction().isAscending() ? ">" : "<";
+            conditions.add(sort.property() == BookSort.Property.ID
+                    ? "id %s :after".formatted(comparison)
+                    : "(%s, id) %s (:afterValue, :after)".formatted(column, comparison));
+            bindings.put("after", after.id());
+            if (after.value() instanceof Instant createdDate)
+                bindings.put("afterValue", LocalDateTime.ofInstant(createdDate, ZoneOffset.UTC));
+            else if (after.value() != null)
+                bindings.put("afterValue", after.value());
+        }
+
+        var orderBy = sort.property() == BookSort.Property.ID
+                ? "id " + direction
+                : "%1$s %2$s, id %2$s".formatted(column, direction);
+
+        bindings.put("limit", limit);
+        return "select * from book where %s order by %s limit :limit"
+                .formatted(whereClauseOf(conditions), orderBy);
+    }
+
+    /**
+     * The grouping sets query for {@link #findFacets}, adding the values it binds to {@code bindings}.
+     */
+    static String facetsQueryOf(BookFilter filter, double priceBucketWidth, Map<String, Object> bindings) {
+        var conditions = new ArrayList<String>();
+        addFilterConditions(filter, conditions, bindings);
+        bindings.put("bucketWidth", priceBucketWidth);
+
+        return FACETS.formatted(whereClauseOf(conditions));
+    }
+
+    static BookFacets facetsOf(List<FacetRow> rows, double priceBucketWidth) {
+        var facetRows = rows.stream().collect(Collectors.partitioningBy(FacetRow::byBucket));
+        return new BookFacets(
+                facetRows.get(false).stream()
+                        .map(facetRow -> new BookFacets.PublisherFacet(facetRow.publisher(), facetRow.books()))
+                        .sorted(Comparator.comparingLong(BookFacets.PublisherFacet::books).reversed())
+                        .toList(),
+                facetRows.get(true).stream()
+                        .map(facetRow -> new BookFacets.PriceFacet(
+                                facetRow.bucket() * priceBucketWidth,
+                                (facetRow.bucket() + 1) * priceBucketWidth,
+                                facetRow.books()))
+                        .sorted(Comparator.comparingDouble(BookFacets.PriceFacet::from))
+                        .toList());
+    }
+
+    private static void addFilterConditions(BookFilter filter, List<String> conditions, Map<String, Object> bindings) {
+        if (filter.minPrice() != null) {
+            conditions.add("price >= :minPrice");
+            bindings.put("minPrice", filter.minPrice());
+        }
+        if (filter.maxPrice() != null) {
+            conditions.add("price <= :maxPrice");
+            bindings.put("maxPrice", filter.maxPrice());
+        }
+        if (filter.publisher() != null) {
+            conditions.add("publisher = :publisher");
+            bindings.put("publisher", filter.publisher());
+        }
+        if (filter.author() != null) {
+            conditions.add("author = :author");
+            bindings.put("author", filter.author());
+        }
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindAll(DatabaseClient.GenericExecuteSpec statement,
+                                                             Map<String, Object> bindings) {
+        for (var binding : bindings.entrySet())
+            statement = statement.bind(binding.getKey(), binding.getValue());
+
+        return statement;
+    }
+
+    private static String whereClauseOf(List<String> conditions) {
+        return conditions.isEmpty() ? "true" : String.join(" and ", conditions);
+    }
+
+    static String insertStatementOf(int rows) {
+        return IntStream.range(0, rows)
+                .mapToObj(row -> INSERT_ROW.formatted(row))
+                .collect(Collectors.joining(",\n", INSERT_INTO, ON_CONFLICT_DO_NOTHING));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindRow(DatabaseClient.GenericExecuteSpec statement, int row, Book book) {
+        return statement
+                .bind("isbn" + row, book.isbn())
+                .bind("title" + row, book.title())
+                .bind("author" + row, book.author())
+                .bind("publisher" + row, nullable(book.publisher()))
+                .bind("price" + row, book.price());
+    }
+
+    // a null still needs its type for the driver to bind it
+    private static Object nullable(String value) {
+        return value != null ? value : Parameters.in(R2dbcType.VARCHAR);
+    }
+
+    private Mono<Optional<String>> currentAuditor() {
+        return auditorAware.getCurrentAuditor()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    record FacetRow(String publisher, Long bucket, long books, boolean byBucket) { }
+
+}
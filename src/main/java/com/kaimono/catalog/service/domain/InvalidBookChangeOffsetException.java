@@ -0,0 +1,9 @@
+package com.kaimono.catalog.service.domain;
+
+public class InvalidBookChangeOffsetException extends RuntimeException {
+
+    public InvalidBookChangeOffsetException(String offset) {
+        super("The change offset " + offset + " is not valid.");
+    }
+
+}
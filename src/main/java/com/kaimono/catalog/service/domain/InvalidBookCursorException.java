@@ -0,0 +1,9 @@
+package com.kaimono.catalog.service.domain;
+
+public class InvalidBookCursorException extends RuntimeException {
+
+    public InvalidBookCursorException(String cursor) {
+        super("The cursor " + cursor + " is not valid.");
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.kaimono.catalog.service.domain;
+
+public class InvalidIsbnException extends RuntimeException {
+
+    public InvalidIsbnException(String isbn) {
+        super("The ISBN " + isbn + " is not valid.");
+    }
+
+}
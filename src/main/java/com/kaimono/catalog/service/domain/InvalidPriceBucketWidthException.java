@@ -0,0 +1,9 @@
+package com.kaimono.catalog.service.domain;
+
+public class InvalidPriceBucketWidthException extends RuntimeException {
+
+    public InvalidPriceBucketWidthException(double width, double minWidth) {
+        super("The price bucket width " + width + " is not valid, it must be at least " + minWidth + ".");
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.kaimono.catalog.service.domain;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An ISBN-10 or ISBN-13 in its normalized form, with a valid check digit. {@code null} is valid.
+ */
+@Documented
+@Constraint(validatedBy = IsbnValidator.class)
+@Target({ ElementType.FIELD, ElementType.PARAMETER, ElementType.RECORD_COMPONENT })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Isbn {
+
+    String message() default "The ISBN format must be valid.";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+}
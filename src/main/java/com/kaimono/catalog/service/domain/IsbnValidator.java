@@ -0,0 +1,13 @@
+package com.kaimono.catalog.service.domain;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class IsbnValidator implements ConstraintValidator<Isbn, String> {
+
+    @Override
+    public boolean isValid(String isbn, ConstraintValidatorContext context) {
+        return isbn == null || Isbns.isValid(isbn);
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.kaimono.catalog.service.domain;
+
+/**
+ * ISBN normalization and check digit validation, written as plain loops over the characters so that neither
+ * allocates for an ISBN that is already normalized.
+ */
+public final class Isbns {
+
+    private Isbns() {}
+
+    /**
+     * Drops hyphens and spaces and upper-cases an ISBN-10 {@code x} check digit. Returns {@code isbn} itself when
+     * there is nothing to change.
+     */
+    public static String normalize(String isbn) {
+        if (isbn == null)
+            return null;
+
+        for (int i = 0; i < isbn.length(); i++) {
+            var c = isbn.charAt(i);
+            if (c == '-' || c == ' ' || c == 'x')
+                return rewrite(isbn);
+        }
+
+        return isbn;
+    }
+
+    /**
+     * Whether {@code isbn} is a normalized ISBN-10 or ISBN-13 whose check digit matches.
+     */
+    public static boolean isValid(CharSequence isbn) {
+        return switch (isbn.length()) {
+            case 10 -> isValidIsbn10(isbn);
+            case 13 -> isValidIsbn13(isbn);
+            default -> false;
+        };
+    }
+
+    /**
+     * Whether {@code isbn} has the shape of a normalized ISBN-10 or ISBN-13, whatever its check digit. Lookups of
+     * existing books only need this much, as books stored before check digits were enforced must stay reachable.
+     */
+    public static boolean isWellFormed(CharSequence isbn) {
+        return switch (isbn.length()) {
+            case 10 -> {
+                var check = isbn.charAt(9);
+                yield weightedSum10(isbn, 9) >= 0 && (check == 'X' || check >= '0' && check <= '9');
+            }
+            case 13 -> weightedSum13(isbn, 13) >= 0;
+            default -> false;
+        };
+    }
+
+    /**
+     * Appends the check digit to the first 9 digits of an ISBN-10 or the first 12 of an ISBN-13.
+     */
+    public static String withCheckDigit(String digits) {
+        return switch (digits.length()) {
+            case 9 -> {
+                var check = (11 - weightedSum10(digits, 9) % 11) % 11;
+                yield digits + (check == 10 ? 'X' : (char) ('0' + check));
+            }
+            case 12 -> digits + (char) ('0' + (10 - weightedSum13(digits, 12) % 10) % 10);
+            default -> throw new IllegalArgumentException("Expected 9 or 12 digits but got " + digits.length() + ".");
+        };
+    }
+
+    private static boolean isValidIsbn10(CharSequence isbn) {
+        var sum = weightedSum10(isbn, 9);
+        if (sum < 0)
+            return false;
+
+        var check = isbn.charAt(9);
+        if (check == 'X')
+            sum += 10;
+        else if (check >= '0' && check <= '9')
+            sum += check - '0';
+        else
+            return false;
+
+        return sum % 11 == 0;
+    }
+
+    private static boolean isValidIsbn13(CharSequence isbn) {
+        var sum = weightedSum13(isbn, 13);
+        return sum >= 0 && sum % 10 == 0;
+    }
+
+    // weights 10 down to 2, or -1 if a character is not a digit
+    private static int weightedSum10(CharSequence digits, int length) {
+        var sum = 0;
+        for (int i = 0; i < length; i++) {
+            var c = digits.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+
+            sum += (c - '0') * (10 - i);
+        }
+
+        return sum;
+    }
+
+    // weights alternating 1 and 3, or -1 if a character is not a digit
+    private static int weightedSum13(CharSequence digits, int length) {
+        var sum = 0;
+        for (int i = 0; i < length; i++) {
+            var c = digits.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+
+            sum += (c - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+
+        return sum;
+    }
+
+    private static String rewrite(String isbn) {
+        var normalized = new StringBuilder(isbn.length());
+        for (int i = 0; i < isbn.length(); i++) {
+            var c = isbn.charAt(i);
+            if (c != '-' && c != ' ')
+                normalized.append(c == 'x' ? 'X' : c);
+        }
+
+        return normalized.toString();
+    }
+
+}
@@ -0,0 +1,351 @@
+package com.kaimono.catalog.service.domain;
+
+import com.kaimono.catalog.service.jdbc.JdbcExecutor;
+import org.reactivestreams.Publisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.data.domain.ReactiveAuditorAware;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link BookRepository} on blocking JDBC through a {@link JdbcExecutor}, issuing the same statements as the
+ * R2DBC repository so the two can be compared under the same workload. Every call runs on the primary: the
+ * read-only routing of {@code DatabaseRoute} only applies to R2DBC connections.
+ * <p>
+ * Each statement commits on its own, like the R2DBC ones, which is why the interface's {@code @Transactional}
+ * methods are overridden to keep the R2DBC transaction manager from opening a transaction nothing would use.
+ */
+public class JdbcBookRepository implements BookRepository {
+
+    private static final String INSERT = """
+            insert into book (isbn, title, author, publisher, price,
+                              created_date, last_modified_date, version, created_by, last_modified_by)
+            values (:isbn, :title, :author, :publisher, :price, :now, :now, :version, :auditor, :auditor)
+            returning *
+            """;
+
+    private static final String UPDATE = """
+            update book
+            set isbn = :isbn, title = :title, author = :author, publisher = :publisher, price = :price,
+                last_modified_date = :now, last_modified_by = :auditor, version = version + 1
+            where id = :id and version = :version
+            returning *
+            """;
+
+    private static final RowMapper<Book> BOOK_ROW_MAPPER = JdbcBookRepository::bookOf;
+
+    private final JdbcExecutor jdbcExecutor;
+    private final ReactiveAuditorAware<String> auditorAware;
+
+    public JdbcBookRepository(JdbcExecutor jdbcExecutor, ReactiveAuditorAware<String> auditorAware) {
+        this.jdbcExecutor = jdbcExecutor;
+        this.auditorAware = auditorAware;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Mono<Void> deleteByIsbn(String isbn) {
+        var parameters = new MapSqlParameterSource("isbn", isbn);
+        return jdbcExecutor.call(jdbc -> jdbc.update(BookQueries.DELETE_BY_ISBN, parameters))
+                .then();
+    }
+
+    @Override
+    public Mono<Book> findByIsbn(String isbn) {
+        var parameters = new MapSqlParameterSource("isbn", isbn);
+        return jdbcExecutor.call(jdbc -> DataAccessUtils.singleResult(
+                jdbc.query(BookQueries.FIND_BY_ISBN, parameters, BOOK_ROW_MAPPER)));
+    }
+
+    @Override
+    public Flux<Book> findAllByIsbn(String[] isbns) {
+        var parameters = new MapSqlParameterSource("isbns", isbns);
+        return jdbcExecutor.query(jdbc -> jdbc.query(BookQueries.FIND_ALL_BY_ISBN, parameters, BOOK_ROW_MAPPER));
+    }
+
+    @Override
+    public Flux<Book> search(String query, int limit, long offset) {
+        var parameters = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+
+        return jdbcExecutor.query(jdbc -> jdbc.query(BookQueries.SEARCH, parameters, BOOK_ROW_MAPPER));
+    }
+
+    @Override
+    public Flux<Book> searchByPrefix(String prefixQuery, String authorPattern, int limit, long offset) {
+        var parameters = new MapSqlParameterSource()
+                .addValue("prefixQuery", prefixQuery)
+                .addValue("authorPattern", authorPattern)
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+
+        return jdbcExecutor.query(jdbc ->
+                jdbc.query(BookQueries.SEARCH_BY_PREFIX, parameters, BOOK_ROW_MAPPER));
+    }
+
+    @Override
+    public Flux<Book> searchBySimilarity(String query, int limit, long offset) {
+        var parameters = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+
+        return jdbcExecutor.query(jdbc ->
+                jdbc.query(BookQueries.SEARCH_BY_SIMILARITY, parameters, BOOK_ROW_MAPPER));
+    }
+
+    @Override
+    public Flux<Book> findPage(BookFilter filter, BookSort sort, BookCursor after, int limit) {
+        var bindings = new HashMap<String, Object>();
+        var query = CustomBookRepositoryImpl.pageQueryOf(filter, sort, after, limit, bindings);
+
+        return jdbcExecutor.query(jdbc -> jdbc.query(query, bindings, BOOK_ROW_MAPPER));
+    }
+
+    @Override
+    public Mono<BookFacets> findFacets(BookFilter filter, double priceBucketWidth) {
+        var bindings = new HashMap<String, Object>();
+        var query = CustomBookRepositoryImpl.facetsQueryOf(filter, priceBucketWidth, bindings);
+
+        return jdbcExecutor.query(jdbc -> jdbc.query(query, bindings, (resultSet, rowNumber) ->
+                        new CustomBookRepositoryImpl.FacetRow(
+                                resultSet.getString("publisher"),
+                                resultSet.getObject("bucket", Long.class),
+                                resultSet.getLong("books"),
+                                resultSet.getInt("by_bucket") == 1)))
+                .collectList()
+                .map(facetRows -> CustomBookRepositoryImpl.facetsOf(facetRows, priceBucketWidth));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Flux<Book> streamAll(long after, int fetchSize) {
+        return jdbcExecutor.stream(CustomBookRepositoryImpl.STREAM_ALL, new MapSqlParameterSource("after", after),
+                fetchSize, BOOK_ROW_MAPPER);
+    }
+
+    @Override
+    public Mono<Book> insertIfAbsent(Book book) {
+        return insertAllIfAbsent(List.of(book)).singleOrEmpty();
+    }
+
+    @Override
+    public Flux<Book> insertAllIfAbsent(List<Book> books) {
+        if (books.isEmpty())
+            return Flux.empty();
+
+        return currentAuditor()
+                .flatMapMany(auditor -> {
+                    var parameters = auditedParameters(auditor)
+                            .addValue("version", CustomBookRepositoryImpl.INITIAL_VERSION);
+                    for (int row = 0; row < books.size(); row++)
+                        addBook(parameters, books.get(row), Integer.toString(row));
+
+                    var statement = CustomBookRepositoryImpl.insertStatementOf(books.size());
+                    return jdbcExecutor.query(jdbc -> jdbc.query(statement, parameters, BOOK_ROW_MAPPER));
+                });
+    }
+
+    @Override
+    public Mono<Book> upsert(String isbn, Book book) {
+        return currentAuditor()
+                .flatMap(auditor -> {
+                    var parameters = addBook(auditedParameters(auditor), book, "")
+                            .addValue("isbn", isbn)
+                            .addValue("version", CustomBookRepositoryImpl.INITIAL_VERSION)
+                            .addValue("expectedVersion", book.version());
+                    var statement = book.version() > 0
+                            ? CustomBookRepositoryImpl.UPDATE_IF_VERSION
+                            : CustomBookRepositoryImpl.UPSERT;
+
+                    return jdbcExecutor.call(jdbc -> DataAccessUtils.singleResult(
+                            jdbc.query(statement, parameters, BOOK_ROW_MAPPER)));
+                });
+    }
+
+    /**
+     * Inserts a book without an id and updates one with an id, failing when the stored version has moved on,
+     * as Spring Data does for an entity with a {@code @Version} property.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends Book> Mono<S> save(S book) {
+        return currentAuditor()
+                .flatMap(auditor -> {
+                    var parameters = addBook(auditedParameters(auditor), book, "");
+                    if (book.id() == null) {
+                        parameters.addValue("version", CustomBookRepositoryImpl.INITIAL_VERSION);
+                        return jdbcExecutor.call(jdbc -> DataAccessUtils.singleResult(
+                                jdbc.query(INSERT, parameters, BOOK_ROW_MAPPER)));
+                    }
+
+                    parameters.addValue("id", book.id()).addValue("version", book.version());
+                    return jdbcExecutor.call(jdbc -> DataAccessUtils.singleResult(
+                                    jdbc.query(UPDATE, parameters, BOOK_ROW_MAPPER)))
+                            .switchIfEmpty(Mono.error(() -> new OptimisticLockingFailureException(
+                                    "Failed to update table [book]; Version does not match for row with Id [%s]"
+                                            .formatted(book.id()))));
+                })
+                .map(savedBook -> (S) savedBook);
+    }
+
+    @Override
+    public <S extends Book> Flux<S> saveAll(Iterable<S> books) {
+        return Flux.fromIterable(books).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends Book> Flux<S> saveAll(Publisher<S> books) {
+        return Flux.from(books).concatMap(this::save);
+    }
+
+    @Override
+    public Mono<Book> findById(Long id) {
+        var parameters = new MapSqlParameterSource("id", id);
+        return jdbcExecutor.call(jdbc -> DataAccessUtils.singleResult(
+                jdbc.query("select * from book where id = :id", parameters, BOOK_ROW_MAPPER)));
+    }
+
+    @Override
+    public Mono<Book> findById(Publisher<Long> id) {
+        return Mono.from(id).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Long id) {
+        return findById(id).hasElement();
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Publisher<Long> id) {
+        return Mono.from(id).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<Book> findAll() {
+        return jdbcExecutor.query(jdbc -> jdbc.query("select * from book", BOOK_ROW_MAPPER));
+    }
+
+    @Override
+    public Flux<Book> findAllById(Iterable<Long> ids) {
+        var parameters = new MapSqlParameterSource("ids", idsOf(ids));
+        return jdbcExecutor.query(jdbc ->
+                jdbc.query("select * from book where id = any(:ids)", parameters, BOOK_ROW_MAPPER));
+    }
+
+    @Override
+    public Flux<Book> findAllById(Publisher<Long> ids) {
+        return Flux.from(ids).collectList().flatMapMany(this::findAllById);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return jdbcExecutor.call(jdbc ->
+                jdbc.getJdbcTemplate().queryForObject("select count(*) from book", Long.class));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        var parameters = new MapSqlParameterSource("id", id);
+        return jdbcExecutor.call(jdbc -> jdbc.update("delete from book where id = :id", parameters))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<Long> id) {
+        return Mono.from(id).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(Book book) {
+        return deleteById(book.id());
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Iterable<? extends Long> ids) {
+        var parameters = new MapSqlParameterSource("ids", idsOf(ids));
+        return jdbcExecutor.call(jdbc -> jdbc.update("delete from book where id = any(:ids)", parameters))
+                .then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends Book> books) {
+        return deleteAllById(StreamSupport.stream(books.spliterator(), false).map(Book::id).toList());
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends Book> books) {
+        return Flux.from(books).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return jdbcExecutor.call(jdbc -> jdbc.getJdbcTemplate().update("delete from book"))
+                .then();
+    }
+
+    private static MapSqlParameterSource auditedParameters(Optional<String> auditor) {
+        // timestamps are stored without a zone and read back as UTC, as the R2DBC driver does
+        return new MapSqlParameterSource()
+                .addValue("now", LocalDateTime.ofInstant(Instant.now(), ZoneOffset.UTC))
+                .addValue("auditor", auditor.orElse(null), Types.VARCHAR);
+    }
+
+    private static MapSqlParameterSource addBook(MapSqlParameterSource parameters, Book book, String suffix) {
+        return parameters
+                .addValue("isbn" + suffix, book.isbn())
+                .addValue("title" + suffix, book.title())
+                .addValue("author" + suffix, book.author())
+                .addValue("publisher" + suffix, book.publisher(), Types.VARCHAR)
+                .addValue("price" + suffix, book.price());
+    }
+
+    private static long[] idsOf(Iterable<? extends Long> ids) {
+        return StreamSupport.stream(ids.spliterator(), false).mapToLong(Long::longValue).toArray();
+    }
+
+    private static Book bookOf(ResultSet resultSet, int rowNumber) throws SQLException {
+        return new Book(
+                resultSet.getLong("id"),
+                resultSet.getString("isbn"),
+                resultSet.getString("title"),
+                resultSet.getString("author"),
+                resultSet.getString("publisher"),
+                resultSet.getDouble("price"),
+                instantOf(resultSet, "created_date"),
+                instantOf(resultSet, "last_modified_date"),
+                resultSet.getInt("version"),
+                resultSet.getString("created_by"),
+                resultSet.getString("last_modified_by"));
+    }
+
+    private static Instant instantOf(ResultSet resultSet, String column) throws SQLException {
+        var timestamp = resultSet.getObject(column, LocalDateTime.class);
+        return timestamp == null ? null : timestamp.toInstant(ZoneOffset.UTC);
+    }
+
+    private Mono<Optional<String>> currentAuditor() {
+        return auditorAware.getCurrentAuditor()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+    }
+
+}
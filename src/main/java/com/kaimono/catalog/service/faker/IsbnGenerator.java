@@ -0,0 +1,97 @@
+package com.kaimono.catalog.service.faker;
+
+/**
+ * Maps an index in {@code [0, CAPACITY)} to a distinct ISBN with a valid check digit. Indexes go through a seeded
+ * Feistel permutation of 30 bits, walking the cycle until the result falls back into the range, so consecutive
+ * indexes give unrelated ISBNs while no two indexes ever share one. Nothing is remembered between calls, and
+ * workers can generate disjoint ranges of indexes without coordinating.
+ */
+final class IsbnGenerator {
+
+    static final long CAPACITY = 1_000_000_000L;
+
+    private static final int HALF_BITS = 15;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+
+    private final long[] roundKeys = new long[ROUNDS];
+
+    IsbnGenerator(long seed) {
+        for (int round = 0; round < ROUNDS; round++)
+            roundKeys[round] = mix(seed + round * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * The ISBN-13 in the {@code 978} prefix for {@code index}.
+     */
+    String isbn13(long index) {
+        var isbn = new char[13];
+        isbn[0] = '9';
+        isbn[1] = '7';
+        isbn[2] = '8';
+        writeDigits(isbn, 3, permute(index));
+
+        var sum = 0;
+        for (int i = 0; i < 12; i++)
+            sum += (isbn[i] - '0') * (i % 2 == 0 ? 1 : 3);
+
+        isbn[12] = (char) ('0' + (10 - sum % 10) % 10);
+        return new String(isbn);
+    }
+
+    /**
+     * The ISBN-10 for {@code index}, which is the same book as {@link #isbn13} without its prefix and may therefore
+     * end in {@code X}.
+     */
+    String isbn10(long index) {
+        var isbn = new char[10];
+        writeDigits(isbn, 0, permute(index));
+
+        var sum = 0;
+        for (int i = 0; i < 9; i++)
+            sum += (isbn[i] - '0') * (10 - i);
+
+        var check = (11 - sum % 11) % 11;
+        isbn[9] = check == 10 ? 'X' : (char) ('0' + check);
+        return new String(isbn);
+    }
+
+    long permute(long index) {
+        if (index < 0 || index >= CAPACITY)
+            throw new IllegalArgumentException("index must be in [0, " + CAPACITY + ").");
+
+        // 2^30 is only slightly larger than the range, so the walk rarely needs more than one step
+        var value = index;
+        do {
+            value = feistel(value);
+        } while (value >= CAPACITY);
+
+        return value;
+    }
+
+    private long feistel(long value) {
+        var left = value >>> HALF_BITS;
+        var right = value & HALF_MASK;
+        for (var roundKey : roundKeys) {
+            var next = left ^ (mix(right ^ roundKey) & HALF_MASK);
+            left = right;
+            right = next;
+        }
+
+        return (left << HALF_BITS) | right;
+    }
+
+    private static void writeDigits(char[] isbn, int offset, long value) {
+        for (int i = offset + 8; i >= offset; i--) {
+            isbn[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+}
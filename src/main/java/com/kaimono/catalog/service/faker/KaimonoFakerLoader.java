@@ -3,45 +3,120 @@ package com.kaimono.catalog.service.faker;
 import com.kaimono.catalog.service.config.KaimonoFakerDataProperties;
 import com.kaimono.catalog.service.domain.Book;
 import com.kaimono.catalog.service.domain.BookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import net.datafaker.Faker;
-import net.datafaker.providers.base.ProviderRegistration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.stream.Stream;
+import java.time.Duration;
+import java.util.Random;
+import java.util.stream.LongStream;
 
+/**
+ * Seeds the catalog with {@code count} fake books. The books are split into batches inserted with
+ * {@link BookRepository#insertAllIfAbsent}, and {@code parallelism} workers insert them concurrently,
+ * throttled to {@code rate} books per second in total, or unthrottled when the rate is zero.
+ * <p>
+ * Each worker owns a {@link Faker} seeded with {@code seed} plus its index, and ISBNs come from an
+ * {@link IsbnGenerator} permuting the index of the book under the same seed. A run with the same settings
+ * therefore generates the same catalog, and it skips books already loaded.
+ */
 @Component
 @ConditionalOnProperty(value = "kaimono.faker.enabled", havingValue = "true")
 public class KaimonoFakerLoader {
 
+    private static final Logger log = LoggerFactory.getLogger(KaimonoFakerLoader.class);
+
     private final KaimonoFakerDataProperties kaimonoFakerDataProperties;
     private final BookRepository bookRepository;
-    private final ProviderRegistration isbnFaker;
-    private final Faker bookFaker;
+    private final IsbnGenerator isbnGenerator;
+    private final Counter insertedBooks;
+    private final Counter skippedBooks;
+    private volatile Disposable loading = Disposables.disposed();
 
-    public KaimonoFakerLoader(KaimonoFakerDataProperties kaimonoFakerDataProperties, BookRepository bookRepository) {
+    public KaimonoFakerLoader(KaimonoFakerDataProperties kaimonoFakerDataProperties, BookRepository bookRepository,
+                              MeterRegistry meterRegistry) {
         this.kaimonoFakerDataProperties = kaimonoFakerDataProperties;
         this.bookRepository = bookRepository;
-        this.isbnFaker = new Faker().unique().getFaker();
-        this.bookFaker = new Faker();
+        this.isbnGenerator = new IsbnGenerator(kaimonoFakerDataProperties.seed());
+        this.insertedBooks = booksCounter("inserted", meterRegistry);
+        this.skippedBooks = booksCounter("skipped", meterRegistry);
     }
 
     @EventListener(ApplicationReadyEvent.class)
-    public Flux<Book> loadFakeBooks() {
-        return Flux.fromStream(Stream.generate(this::getFakeBook))
-                .flatMap(bookRepository::save)
-                .doOnEach(System.out::println) // TODO - replace with logs
-                .delayElements(kaimonoFakerDataProperties.frequency());
+    public void startLoading() {
+        var start = System.nanoTime();
+        loading = loadFakeBooks().subscribe(
+                inserted -> log.info("Loaded {} fake books in {}.", inserted, Duration.ofNanos(System.nanoTime() - start)),
+                error -> log.error("Loading fake books failed.", error));
+    }
+
+    @PreDestroy
+    public void stopLoading() {
+        loading.dispose();
+    }
+
+    /**
+     * Emits how many books were inserted, which is less than {@code count} when some were already there.
+     */
+    public Mono<Long> loadFakeBooks() {
+        var batchSize = kaimonoFakerDataProperties.batchSize();
+        var batches = (kaimonoFakerDataProperties.count() + batchSize - 1) / batchSize;
+        var workers = (int) Math.min(kaimonoFakerDataProperties.parallelism(), batches);
+
+        return Flux.range(0, workers)
+                .flatMap(worker -> loadBatchesOf(worker, workers, batches), workers)
+                .reduce(0L, Long::sum);
     }
 
-    private Book getFakeBook() {
+    /**
+     * Batches are dealt round robin, so worker {@code w} inserts batches {@code w}, {@code w + workers} and so on,
+     * one at a time, which keeps its {@link Faker} confined to a single batch at any moment.
+     */
+    private Flux<Long> loadBatchesOf(int worker, int workers, long batches) {
+        var faker = new Faker(new Random(kaimonoFakerDataProperties.seed() + worker));
+        var workerBatches = Flux.fromStream(() ->
+                LongStream.iterate(worker, batch -> batch < batches, batch -> batch + workers).boxed());
 
-        var fakeBook = bookFaker.book();
-        var fakeIsbn = isbnFaker.regexify("([0-9]{10}|[0-9]{13})");
-        var fakePrice = (double) bookFaker.random().nextInt(
+        var rate = kaimonoFakerDataProperties.rate();
+        var throttledBatches = rate == 0
+                ? workerBatches
+                : workerBatches.delayElements(Duration.ofNanos(
+                        Duration.ofSeconds(1).toNanos() * kaimonoFakerDataProperties.batchSize() * workers / rate));
+
+        return throttledBatches.concatMap(batch -> insertBatch(faker, batch));
+    }
+
+    private Mono<Long> insertBatch(Faker faker, long batch) {
+        var first = batch * kaimonoFakerDataProperties.batchSize();
+        var last = Math.min(kaimonoFakerDataProperties.count(), first + kaimonoFakerDataProperties.batchSize());
+        var books = LongStream.range(first, last)
+                .mapToObj(index -> getFakeBook(faker, index))
+                .toList();
+
+        return bookRepository.insertAllIfAbsent(books)
+                .count()
+                .doOnNext(inserted -> {
+                    insertedBooks.increment(inserted);
+                    skippedBooks.increment(books.size() - inserted);
+                });
+    }
+
+    private Book getFakeBook(Faker faker, long index) {
+
+        var fakeBook = faker.book();
+        var fakeIsbn = isbnGenerator.isbn13(index);
+        var fakePrice = (double) faker.random().nextInt(
                 kaimonoFakerDataProperties.minPrice(),
                 kaimonoFakerDataProperties.maxPrice()
         );
@@ -49,4 +124,11 @@ public class KaimonoFakerLoader {
         return Book.of(fakeIsbn, fakeBook.title(), fakeBook.author(), fakeBook.publisher(), fakePrice);
     }
 
+    private static Counter booksCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("kaimono.faker.books")
+                .description("Fake books inserted, or skipped because their ISBN was already taken")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
 }
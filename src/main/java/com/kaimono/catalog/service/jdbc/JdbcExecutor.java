@@ -0,0 +1,172 @@
+package com.kaimono.catalog.service.jdbc;
+
+import com.kaimono.catalog.service.config.KaimonoJdbcProperties;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterUtils;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.JdbcUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+/**
+ * Runs blocking JDBC work against its own Hikari pool and hands the results back as {@code Mono} and {@code Flux}.
+ * The work runs on a virtual thread per call when the JVM provides them, otherwise on a bounded elastic scheduler
+ * with one thread per pooled connection. Either way the pool bounds how many statements run at once.
+ * The pool is not exposed as a {@code DataSource} bean, which would have Spring Boot set up a JDBC transaction
+ * manager next to the R2DBC one.
+ */
+public class JdbcExecutor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcExecutor.class);
+
+    private final HikariDataSource dataSource;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Scheduler scheduler;
+
+    public JdbcExecutor(KaimonoJdbcProperties kaimonoJdbcProperties, MeterRegistry meterRegistry) {
+        var config = new HikariConfig();
+        config.setPoolName("kaimono-jdbc");
+        config.setJdbcUrl(kaimonoJdbcProperties.url());
+        config.setUsername(kaimonoJdbcProperties.username());
+        config.setPassword(kaimonoJdbcProperties.password());
+        config.setMaximumPoolSize(kaimonoJdbcProperties.maximumPoolSize());
+        config.setConnectionTimeout(kaimonoJdbcProperties.connectionTimeout().toMillis());
+        // the driver switches a statement to a server-side prepared one after prepareThreshold executions
+        // and keeps up to preparedStatementCacheQueries of them per connection
+        config.addDataSourceProperty("prepareThreshold", kaimonoJdbcProperties.prepareThreshold());
+        config.addDataSourceProperty("preparedStatementCacheQueries",
+                kaimonoJdbcProperties.preparedStatementCacheQueries());
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        this.dataSource = new HikariDataSource(config);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.scheduler = schedulerOf(kaimonoJdbcProperties);
+    }
+
+    /**
+     * Runs {@code work} when subscribed to, completing empty when it returns {@code null}.
+     */
+    public <T> Mono<T> call(Function<NamedParameterJdbcTemplate, T> work) {
+        return Mono.fromCallable(() -> work.apply(jdbcTemplate))
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * Runs {@code work} when subscribed to and emits the rows it returns.
+     */
+    public <T> Flux<T> query(Function<NamedParameterJdbcTemplate, List<T>> work) {
+        return call(work).flatMapIterable(Function.identity());
+    }
+
+    /**
+     * Reads the rows of {@code sql} through a cursor fetching {@code fetchSize} at a time, one row per downstream
+     * request. The cursor holds its connection and transaction until the rows run out or the subscriber cancels.
+     */
+    public <T> Flux<T> stream(String sql, SqlParameterSource parameters, int fetchSize, RowMapper<T> rowMapper) {
+        return Flux.<T, Cursor>generate(
+                        () -> open(sql, parameters, fetchSize),
+                        (cursor, sink) -> {
+                            try {
+                                if (cursor.resultSet().next())
+                                    sink.next(rowMapper.mapRow(cursor.resultSet(), cursor.resultSet().getRow()));
+                                else
+                                    sink.complete();
+                            } catch (SQLException ex) {
+                                sink.error(translate(sql, ex));
+                            }
+                            return cursor;
+                        },
+                        Cursor::close)
+                .subscribeOn(scheduler);
+    }
+
+    @Override
+    public void close() {
+        scheduler.dispose();
+        dataSource.close();
+    }
+
+    private Cursor open(String sql, SqlParameterSource parameters, int fetchSize) {
+        var parsedSql = NamedParameterUtils.parseSqlStatement(sql);
+        var substitutedSql = NamedParameterUtils.substituteNamedParameters(parsedSql, parameters);
+        var values = NamedParameterUtils.buildValueArray(parsedSql, parameters, null);
+
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = dataSource.getConnection();
+            // the driver only fetches in batches inside a transaction, otherwise it reads the whole result
+            connection.setAutoCommit(false);
+            statement = connection.prepareStatement(substitutedSql);
+            statement.setFetchSize(fetchSize);
+            for (int index = 0; index < values.length; index++)
+                StatementCreatorUtils.setParameterValue(statement, index + 1,
+                        SqlTypeValue.TYPE_UNKNOWN, values[index]);
+
+            return new Cursor(connection, statement, statement.executeQuery());
+        } catch (SQLException ex) {
+            JdbcUtils.closeStatement(statement);
+            JdbcUtils.closeConnection(connection);
+            throw translate(sql, ex);
+        }
+    }
+
+    private RuntimeException translate(String sql, SQLException ex) {
+        var translated = jdbcTemplate.getJdbcTemplate().getExceptionTranslator()
+                .translate("stream", sql, ex);
+        return translated != null ? translated : new IllegalStateException(ex);
+    }
+
+    private static Scheduler schedulerOf(KaimonoJdbcProperties kaimonoJdbcProperties) {
+        var executor = kaimonoJdbcProperties.virtualThreads()
+                ? VirtualThreads.newPerTaskExecutor()
+                : Optional.<ExecutorService>empty();
+
+        if (executor.isPresent()) {
+            log.info("Running JDBC calls on virtual threads.");
+            return Schedulers.fromExecutorService(executor.get(), "kaimono-jdbc");
+        }
+
+        if (kaimonoJdbcProperties.virtualThreads())
+            log.warn("Virtual threads are not available, start the JVM with --enable-preview to use them. "
+                    + "Running JDBC calls on platform threads instead.");
+
+        return Schedulers.newBoundedElastic(kaimonoJdbcProperties.maximumPoolSize(), Integer.MAX_VALUE, "kaimono-jdbc");
+    }
+
+    private record Cursor(Connection connection, PreparedStatement statement, ResultSet resultSet) {
+
+        void close() {
+            JdbcUtils.closeResultSet(resultSet);
+            JdbcUtils.closeStatement(statement);
+            try {
+                connection.rollback();
+            } catch (SQLException ex) {
+                log.debug("Could not end the cursor's read-only transaction.", ex);
+            }
+            JdbcUtils.closeConnection(connection);
+        }
+
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.kaimono.catalog.service.jdbc;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to the virtual thread executor, which is a preview API on Java 19. It is looked up reflectively so the
+ * code compiles without {@code --enable-preview}, and is only available when the JVM runs with it.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {}
+
+    /**
+     * An executor starting a virtual thread per task, or nothing when the JVM does not provide one.
+     */
+    static Optional<ExecutorService> newPerTaskExecutor() {
+        try {
+            var factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return Optional.of((ExecutorService) factory.invoke(null));
+        } catch (ReflectiveOperationException | UnsupportedOperationException ex) {
+            // a disabled preview feature surfaces as an UnsupportedOperationException wrapped by invoke
+            return Optional.empty();
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.kaimono.catalog.service.metrics;
+
+import com.kaimono.catalog.service.config.KaimonoQueryProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.r2dbc.proxy.ProxyConnectionFactory;
+import io.r2dbc.proxy.observation.ObservationProxyExecutionListener;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Routes every statement through r2dbc-proxy, which opens a span per execution under the caller's
+ * observation and hands its timing to {@link SlowQueryListener}, then times connection acquisition.
+ */
+@Component
+public class ConnectionFactoryMetricsPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final ObjectProvider<ObservationRegistry> observationRegistry;
+    private final ObjectProvider<R2dbcProperties> r2dbcProperties;
+    private final ObjectProvider<KaimonoQueryProperties> queryProperties;
+
+    public ConnectionFactoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                 ObjectProvider<ObservationRegistry> observationRegistry,
+                                                 ObjectProvider<R2dbcProperties> r2dbcProperties,
+                                                 ObjectProvider<KaimonoQueryProperties> queryProperties) {
+        this.meterRegistry = meterRegistry;
+        this.observationRegistry = observationRegistry;
+        this.r2dbcProperties = r2dbcProperties;
+        this.queryProperties = queryProperties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof ConnectionFactory connectionFactory) || bean instanceof TimedConnectionFactory)
+            return bean;
+
+        var observedConnectionFactory = ProxyConnectionFactory.builder(connectionFactory)
+                .listener(new ObservationProxyExecutionListener(
+                        observationRegistry.getObject(), connectionFactory, r2dbcProperties.getObject().getUrl()))
+                .listener(new SlowQueryListener(queryProperties.getObject().slowQueryThreshold()))
+                .build();
+
+        return new TimedConnectionFactory(observedConnectionFactory, meterRegistry.getObject(), beanName);
+    }
+
+}
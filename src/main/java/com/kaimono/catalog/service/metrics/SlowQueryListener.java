@@ -0,0 +1,40 @@
+package com.kaimono.catalog.service.metrics;
+
+import io.r2dbc.proxy.core.QueryExecutionInfo;
+import io.r2dbc.proxy.core.QueryInfo;
+import io.r2dbc.proxy.listener.ProxyExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Logs statements that ran for at least the configured threshold. Only the SQL and the number of
+ * bound parameter sets are logged, never the bound values, which may hold customer data.
+ */
+class SlowQueryListener implements ProxyExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryListener.class);
+
+    private final Duration threshold;
+
+    SlowQueryListener(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void afterQuery(QueryExecutionInfo execInfo) {
+        var duration = execInfo.getExecuteDuration();
+        if (duration.compareTo(threshold) < 0)
+            return;
+
+        var sql = execInfo.getQueries().stream()
+                .map(QueryInfo::getQuery)
+                .collect(Collectors.joining("; "));
+
+        log.warn("Slow query took {} ms with {} bind set(s), success={}: {}",
+                duration.toMillis(), execInfo.getBindingsSize(), execInfo.isSuccess(), sql);
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.kaimono.catalog.service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Records how long callers wait for a connection. The pool only exposes point-in-time gauges,
+ * which show saturation but not what it costs each request. Implements {@link Wrapped} so the
+ * pool underneath is still found and bound to the {@code r2dbc.pool.*} gauges.
+ */
+class TimedConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory>, Disposable {
+
+    static final String ACQUIRE_METRIC = "r2dbc.pool.acquire";
+
+    private final ConnectionFactory delegate;
+    private final MeterRegistry meterRegistry;
+    private final String name;
+
+    TimedConnectionFactory(ConnectionFactory delegate, MeterRegistry meterRegistry, String name) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.name = name;
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.defer(() -> {
+            var sample = Timer.start(meterRegistry);
+            return Mono.<Connection>from(delegate.create())
+                    .doFinally(signal -> sample.stop(Timer.builder(ACQUIRE_METRIC)
+                            .description("Time spent waiting to acquire an R2DBC connection")
+                            .tag("name", name)
+                            .tag("outcome", outcomeOf(signal))
+                            .publishPercentileHistogram()
+                            .register(meterRegistry)));
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+
+    /**
+     * Stands in for the pool's own {@code dispose} destroy method, which the container now looks up on this wrapper.
+     */
+    @Override
+    public void dispose() {
+        ConnectionFactory connectionFactory = delegate;
+        while (!(connectionFactory instanceof Disposable) && connectionFactory instanceof Wrapped<?> wrapped
+                && wrapped.unwrap() instanceof ConnectionFactory unwrapped)
+            connectionFactory = unwrapped;
+
+        if (connectionFactory instanceof Disposable disposable)
+            disposable.dispose();
+    }
+
+    private static String outcomeOf(SignalType signal) {
+        return switch (signal) {
+            case ON_COMPLETE -> "success";
+            case ON_ERROR -> "error";
+            default -> "cancelled";
+        };
+    }
+
+}
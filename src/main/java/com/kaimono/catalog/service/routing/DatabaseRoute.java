@@ -0,0 +1,33 @@
+package com.kaimono.catalog.service.routing;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Reactor context flags read by {@link ReplicaRoutingConnectionFactory} when a connection is requested.
+ * Reads opt in to replicas; a caller that must see its own writes can pin them back to the primary.
+ */
+public final class DatabaseRoute {
+
+    private static final String READ_ONLY = DatabaseRoute.class.getName() + ".READ_ONLY";
+    private static final String PRIMARY = DatabaseRoute.class.getName() + ".PRIMARY";
+
+    private DatabaseRoute() {}
+
+    public static Context readOnly(Context context) {
+        return context.put(READ_ONLY, true);
+    }
+
+    public static Context primary(Context context) {
+        return context.put(PRIMARY, true);
+    }
+
+    public static boolean isPinnedToPrimary(ContextView context) {
+        return context.hasKey(PRIMARY);
+    }
+
+    static boolean isReplicaEligible(ContextView context) {
+        return context.hasKey(READ_ONLY) && !context.hasKey(PRIMARY);
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.kaimono.catalog.service.routing;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out replica connections, round robin, to subscribers flagged with {@link DatabaseRoute#readOnly}
+ * and primary connections to everyone else. A replica that fails to produce a connection is skipped
+ * for {@code failoverCooldown} and the read moves on to the next replica, or to the primary once none is left.
+ * Unwraps to the primary so health checks and pool gauges keep working unchanged.
+ */
+public class ReplicaRoutingConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory>, Disposable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingConnectionFactory.class);
+
+    private final ConnectionFactory primary;
+    private final List<Replica> replicas;
+    private final Duration failoverCooldown;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingConnectionFactory(ConnectionFactory primary, List<ConnectionFactory> replicas, Duration failoverCooldown) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.failoverCooldown = failoverCooldown;
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.deferContextual(context -> DatabaseRoute.isReplicaEligible(context)
+                ? createOnReplica()
+                : createOnPrimary());
+    }
+
+    private Mono<Connection> createOnReplica() {
+        var first = nextReplica.getAndIncrement();
+        return Flux.range(0, replicas.size())
+                .map(offset -> replicas.get(Math.floorMod(first + offset, replicas.size())))
+                .filter(Replica::isUp)
+                .concatMap(this::createOn)
+                .next()
+                .switchIfEmpty(Mono.defer(this::createOnPrimary));
+    }
+
+    private Mono<Connection> createOn(Replica replica) {
+        return Mono.<Connection>from(replica.connectionFactory.create())
+                .onErrorResume(ex -> {
+                    log.warn("Replica {} is unavailable for {}, failing over: {}",
+                            replica.connectionFactory.getMetadata().getName(), failoverCooldown, ex.getMessage());
+                    replica.markDown(failoverCooldown);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Connection> createOnPrimary() {
+        return Mono.from(primary.create());
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return primary.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return primary;
+    }
+
+    @Override
+    public void dispose() {
+        replicas.forEach(replica -> disposeIfPossible(replica.connectionFactory));
+        disposeIfPossible(primary);
+    }
+
+    private static void disposeIfPossible(ConnectionFactory connectionFactory) {
+        if (connectionFactory instanceof Disposable disposable)
+            disposable.dispose();
+    }
+
+    private static class Replica {
+
+        private final ConnectionFactory connectionFactory;
+        private volatile long downUntil;
+
+        Replica(ConnectionFactory connectionFactory) {
+            this.connectionFactory = connectionFactory;
+            this.downUntil = System.nanoTime();
+        }
+
+        boolean isUp() {
+            return System.nanoTime() - downUntil >= 0;
+        }
+
+        void markDown(Duration cooldown) {
+            downUntil = System.nanoTime() + cooldown.toNanos();
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.kaimono.catalog.service.routing;
+
+import com.kaimono.catalog.service.config.KaimonoReplicaProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.IntStream;
+
+/**
+ * Puts the auto-configured pool behind a {@link ReplicaRoutingConnectionFactory} when replica URLs
+ * are configured. Replica pools are sized like the primary and reuse its credentials unless their URL
+ * carries its own, and get the same {@code r2dbc.pool.*} gauges. Ordered so the routing sits underneath
+ * the observability wrappers, which then see every statement whichever database serves it.
+ */
+@Component
+public class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<KaimonoReplicaProperties> replicaProperties;
+    private final ObjectProvider<R2dbcProperties> r2dbcProperties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ReplicaRoutingPostProcessor(ObjectProvider<KaimonoReplicaProperties> replicaProperties,
+                                       ObjectProvider<R2dbcProperties> r2dbcProperties,
+                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        this.replicaProperties = replicaProperties;
+        this.r2dbcProperties = r2dbcProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof ConnectionFactory primary) || bean instanceof ReplicaRoutingConnectionFactory)
+            return bean;
+
+        var replicaUrls = replicaProperties.getObject().urls();
+        if (replicaUrls.isEmpty())
+            return bean;
+
+        var replicas = IntStream.range(0, replicaUrls.size())
+                .mapToObj(index -> replicaPool(replicaUrls.get(index), beanName + "-replica-" + index))
+                .toList();
+
+        return new ReplicaRoutingConnectionFactory(primary, replicas, replicaProperties.getObject().failoverCooldown());
+    }
+
+    private ConnectionFactory replicaPool(String url, String name) {
+        var properties = r2dbcProperties.getObject();
+        var options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!ConnectionFactoryOptions.parse(url).hasOption(ConnectionFactoryOptions.USER))
+            options.option(ConnectionFactoryOptions.USER, properties.getUsername())
+                    .option(ConnectionFactoryOptions.PASSWORD, properties.getPassword());
+
+        var poolProperties = properties.getPool();
+        var configuration = ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .name(name)
+                .initialSize(poolProperties.getInitialSize())
+                .maxSize(poolProperties.getMaxSize());
+        if (poolProperties.getMaxCreateConnectionTime() != null)
+            configuration.maxCreateConnectionTime(poolProperties.getMaxCreateConnectionTime());
+
+        var pool = new ConnectionPool(configuration.build());
+        meterRegistry.ifAvailable(registry -> new ConnectionPoolMetrics(pool, name, Tags.empty()).bindTo(registry));
+        return pool;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+}
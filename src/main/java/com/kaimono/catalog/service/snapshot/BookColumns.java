@@ -0,0 +1,393 @@
+package com.kaimono.catalog.service.snapshot;
+
+import com.kaimono.catalog.service.domain.Book;
+import com.kaimono.catalog.service.domain.BookCursor;
+import com.kaimono.catalog.service.domain.BookFilter;
+import com.kaimono.catalog.service.domain.BookSort;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable structure-of-arrays copy of the catalog. Rows are kept in id order with primitive prices, versions and
+ * timestamps, while authors, publishers and auditors are codes into a {@link Dictionary} shared by every copy.
+ * Each sortable property has a precomputed row ordering, so a page is served by walking an ordering from the cursor
+ * and only the rows returned ever become {@link Book}s.
+ */
+final class BookColumns {
+
+    private static final int NULL_CODE = -1;
+    private static final long NULL_INSTANT = Long.MIN_VALUE;
+
+    private final Dictionary dictionary;
+    private final String[] words;
+    private final int size;
+    private final long[] ids;
+    private final String[] isbns;
+    private final String[] titles;
+    private final int[] authors;
+    private final int[] publishers;
+    private final double[] prices;
+    private final int[] versions;
+    private final long[] createdDates;
+    private final long[] lastModifiedDates;
+    private final int[] createdBy;
+    private final int[] lastModifiedBy;
+    private final Map<BookSort.Property, int[]> orderings = new EnumMap<>(BookSort.Property.class);
+
+    private BookColumns(Builder builder) {
+        this.dictionary = builder.dictionary;
+        this.words = builder.dictionary.words();
+        this.size = builder.size;
+        this.ids = builder.ids;
+        this.isbns = builder.isbns;
+        this.titles = builder.titles;
+        this.authors = builder.authors;
+        this.publishers = builder.publishers;
+        this.prices = builder.prices;
+        this.versions = builder.versions;
+        this.createdDates = builder.createdDates;
+        this.lastModifiedDates = builder.lastModifiedDates;
+        this.createdBy = builder.createdBy;
+        this.lastModifiedBy = builder.lastModifiedBy;
+    }
+
+    static Builder builder() {
+        return new Builder(new Dictionary(), 1024);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Same rows as {@link com.kaimono.catalog.service.domain.CustomBookRepository#findPage}, except that titles are
+     * compared by code point rather than by the database collation.
+     */
+    List<Book> findPage(BookFilter filter, BookSort sort, BookCursor after, int limit) {
+        var matcher = matcherOf(filter);
+        var property = sort.property();
+        var ascending = sort.direction().isAscending();
+        var ordering = orderings.get(property);
+
+        int position;
+        if (after == null) {
+            position = ascending ? 0 : size - 1;
+        } else if (ordering == null) {
+            var found = Arrays.binarySearch(ids, 0, size, after.id());
+            var insertion = found >= 0 ? found : -found - 1;
+            position = ascending
+                    ? (found >= 0 ? found + 1 : insertion)
+                    : insertion - 1;
+        } else {
+            position = ascending
+                    ? boundOf(ordering, property, after, false)
+                    : boundOf(ordering, property, after, true) - 1;
+        }
+
+        var books = new ArrayList<Book>(Math.min(limit, 128));
+        var step = ascending ? 1 : -1;
+        for (; position >= 0 && position < size && books.size() < limit; position += step) {
+            var row = ordering == null ? position : ordering[position];
+            if (matcher.test(row))
+                books.add(bookAt(row));
+        }
+
+        return books;
+    }
+
+    /**
+     * A new copy in which every row of {@code changedIsbns} is replaced by its current {@code books}; ISBNs without a
+     * current book were deleted. Kept rows stay in the same relative order, so orderings are merged rather than
+     * sorted again, and the cost is linear in the size of the catalog: every column and ordering is copied, even for
+     * a single changed book, which is why {@link BookSnapshot} applies changes in batches.
+     */
+    BookColumns apply(Set<String> changedIsbns, List<Book> books) {
+        var added = books.stream().sorted(Comparator.comparing(Book::id)).toList();
+        var builder = new Builder(dictionary, size - changedIsbns.size() + added.size());
+        var newRows = new int[size];
+        var addedRows = new int[added.size()];
+
+        var next = 0;
+        for (int row = 0; row < size; row++) {
+            while (next < added.size() && added.get(next).id() < ids[row])
+                addedRows[next] = builder.add(added.get(next++));
+
+            var replaced = next < added.size() && added.get(next).id() == ids[row];
+            newRows[row] = replaced || changedIsbns.contains(isbns[row]) ? -1 : builder.copy(this, row);
+        }
+        while (next < added.size())
+            addedRows[next] = builder.add(added.get(next++));
+
+        var columns = new BookColumns(builder);
+        for (var ordering : orderings.entrySet()) {
+            var property = ordering.getKey();
+            var rows = new int[columns.size];
+            var kept = 0;
+            for (var row : ordering.getValue())
+                if (newRows[row] >= 0)
+                    rows[kept++] = newRows[row];
+
+            var sortedAdded = addedRows.clone();
+            columns.sort(sortedAdded, property);
+            System.arraycopy(sortedAdded, 0, rows, kept, sortedAdded.length);
+
+            var merged = new int[rows.length];
+            columns.merge(rows, 0, kept, rows.length, merged, property);
+            columns.orderings.put(property, merged);
+        }
+
+        return columns;
+    }
+
+    private Book bookAt(int row) {
+        return new Book(ids[row], isbns[row], titles[row], wordOf(authors[row]), wordOf(publishers[row]), prices[row],
+                instantOf(createdDates[row]), instantOf(lastModifiedDates[row]), versions[row],
+                wordOf(createdBy[row]), wordOf(lastModifiedBy[row]));
+    }
+
+    private IntPredicate matcherOf(BookFilter filter) {
+        IntPredicate matcher = row -> true;
+        if (filter.minPrice() != null) {
+            double minPrice = filter.minPrice();
+            matcher = matcher.and(row -> prices[row] >= minPrice);
+        }
+        if (filter.maxPrice() != null) {
+            double maxPrice = filter.maxPrice();
+            matcher = matcher.and(row -> prices[row] <= maxPrice);
+        }
+        if (filter.publisher() != null) {
+            var publisher = dictionary.codeOf(filter.publisher());
+            matcher = matcher.and(row -> publishers[row] == publisher);
+        }
+        if (filter.author() != null) {
+            var author = dictionary.codeOf(filter.author());
+            matcher = matcher.and(row -> authors[row] == author);
+        }
+
+        return matcher;
+    }
+
+    // index of the first row of the ordering past the cursor, or at it when inclusive; the cursor row may be gone
+    private int boundOf(int[] ordering, BookSort.Property property, BookCursor cursor, boolean inclusive) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            var comparison = compare(property, ordering[middle], cursor);
+            if (comparison < 0 || comparison == 0 && !inclusive)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        return low;
+    }
+
+    private int compare(BookSort.Property property, int row, BookCursor cursor) {
+        var comparison = switch (property) {
+            case ID -> 0;
+            case PRICE -> Double.compare(prices[row], (Double) cursor.value());
+            case TITLE -> titles[row].compareTo((String) cursor.value());
+            case CREATED_DATE -> Long.compare(createdDates[row], microsOf((Instant) cursor.value()));
+        };
+
+        return comparison != 0 ? comparison : Long.compare(ids[row], cursor.id());
+    }
+
+    private int compare(BookSort.Property property, int left, int right) {
+        var comparison = switch (property) {
+            case ID -> 0;
+            case PRICE -> Double.compare(prices[left], prices[right]);
+            case TITLE -> titles[left].compareTo(titles[right]);
+            case CREATED_DATE -> Long.compare(createdDates[left], createdDates[right]);
+        };
+
+        return comparison != 0 ? comparison : Long.compare(ids[left], ids[right]);
+    }
+
+    // bottom-up merge sort, as sorting boxed indexes would allocate an object per row
+    private void sort(int[] rows, BookSort.Property property) {
+        var source = rows;
+        var target = new int[rows.length];
+        for (int width = 1; width < rows.length; width *= 2) {
+            for (int from = 0; from < rows.length; from += 2 * width)
+                merge(source, from, Math.min(from + width, rows.length), Math.min(from + 2 * width, rows.length),
+                        target, property);
+
+            var merged = target;
+            target = source;
+            source = merged;
+        }
+
+        if (source != rows)
+            System.arraycopy(source, 0, rows, 0, rows.length);
+    }
+
+    private void merge(int[] source, int from, int middle, int to, int[] target, BookSort.Property property) {
+        int left = from;
+        int right = middle;
+        int out = from;
+        while (left < middle && right < to)
+            target[out++] = compare(property, source[left], source[right]) <= 0 ? source[left++] : source[right++];
+        while (left < middle)
+            target[out++] = source[left++];
+        while (right < to)
+            target[out++] = source[right++];
+    }
+
+    private String wordOf(int code) {
+        return code == NULL_CODE ? null : words[code];
+    }
+
+    private static Instant instantOf(long micros) {
+        return micros == NULL_INSTANT ? null : Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+
+    private static long microsOf(Instant instant) {
+        return instant == null ? NULL_INSTANT : instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1000;
+    }
+
+    static final class Builder {
+
+        private final Dictionary dictionary;
+        private int size;
+        private long[] ids;
+        private String[] isbns;
+        private String[] titles;
+        private int[] authors;
+        private int[] publishers;
+        private double[] prices;
+        private int[] versions;
+        private long[] createdDates;
+        private long[] lastModifiedDates;
+        private int[] createdBy;
+        private int[] lastModifiedBy;
+
+        private Builder(Dictionary dictionary, int capacity) {
+            this.dictionary = dictionary;
+            resize(Math.max(capacity, 1));
+        }
+
+        /**
+         * Appends {@code book}, whose id must be greater than the id of every book added before.
+         */
+        int add(Book book) {
+            var row = nextRow();
+            ids[row] = book.id();
+            isbns[row] = book.isbn();
+            titles[row] = book.title();
+            authors[row] = dictionary.encode(book.author());
+            publishers[row] = dictionary.encode(book.publisher());
+            prices[row] = book.price();
+            versions[row] = book.version();
+            createdDates[row] = microsOf(book.createdDate());
+            lastModifiedDates[row] = microsOf(book.lastModifiedDate());
+            createdBy[row] = dictionary.encode(book.createdBy());
+            lastModifiedBy[row] = dictionary.encode(book.lastModifiedBy());
+            return row;
+        }
+
+        BookColumns build() {
+            var columns = new BookColumns(this);
+            for (var property : BookSort.Property.values()) {
+                if (property == BookSort.Property.ID)
+                    continue;
+
+                var rows = new int[columns.size];
+                Arrays.setAll(rows, row -> row);
+                columns.sort(rows, property);
+                columns.orderings.put(property, rows);
+            }
+
+            return columns;
+        }
+
+        private int copy(BookColumns source, int sourceRow) {
+            var row = nextRow();
+            ids[row] = source.ids[sourceRow];
+            isbns[row] = source.isbns[sourceRow];
+            titles[row] = source.titles[sourceRow];
+            authors[row] = source.authors[sourceRow];
+            publishers[row] = source.publishers[sourceRow];
+            prices[row] = source.prices[sourceRow];
+            versions[row] = source.versions[sourceRow];
+            createdDates[row] = source.createdDates[sourceRow];
+            lastModifiedDates[row] = source.lastModifiedDates[sourceRow];
+            createdBy[row] = source.createdBy[sourceRow];
+            lastModifiedBy[row] = source.lastModifiedBy[sourceRow];
+            return row;
+        }
+
+        private int nextRow() {
+            if (size == ids.length)
+                resize(size * 2);
+
+            return size++;
+        }
+
+        private void resize(int capacity) {
+            ids = ids == null ? new long[capacity] : Arrays.copyOf(ids, capacity);
+            isbns = isbns == null ? new String[capacity] : Arrays.copyOf(isbns, capacity);
+            titles = titles == null ? new String[capacity] : Arrays.copyOf(titles, capacity);
+            authors = authors == null ? new int[capacity] : Arrays.copyOf(authors, capacity);
+            publishers = publishers == null ? new int[capacity] : Arrays.copyOf(publishers, capacity);
+            prices = prices == null ? new double[capacity] : Arrays.copyOf(prices, capacity);
+            versions = versions == null ? new int[capacity] : Arrays.copyOf(versions, capacity);
+            createdDates = createdDates == null ? new long[capacity] : Arrays.copyOf(createdDates, capacity);
+            lastModifiedDates = lastModifiedDates == null ? new long[capacity] : Arrays.copyOf(lastModifiedDates, capacity);
+            createdBy = createdBy == null ? new int[capacity] : Arrays.copyOf(createdBy, capacity);
+            lastModifiedBy = lastModifiedBy == null ? new int[capacity] : Arrays.copyOf(lastModifiedBy, capacity);
+        }
+
+    }
+
+    /**
+     * Interned strings of the catalog. Only the refresh writes to it; readers decode through the word array captured
+     * by their own copy, which already holds every code its rows use. Words are never dropped, so the dictionary only
+     * grows with authors, publishers and auditors that were ever seen.
+     */
+    static final class Dictionary {
+
+        private static final int ABSENT = -2;
+
+        private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+        private String[] words = new String[64];
+        private int size;
+
+        private int encode(String word) {
+            if (word == null)
+                return NULL_CODE;
+
+            var code = codes.get(word);
+            if (code != null)
+                return code;
+
+            if (size == words.length)
+                words = Arrays.copyOf(words, size * 2);
+
+            words[size] = word;
+            codes.put(word, size);
+            return size++;
+        }
+
+        private int codeOf(String word) {
+            return codes.getOrDefault(word, ABSENT);
+        }
+
+        private String[] words() {
+            return words;
+        }
+
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.kaimono.catalog.service.snapshot;
+
+import com.kaimono.catalog.service.config.KaimonoSnapshotProperties;
+import com.kaimono.catalog.service.domain.Book;
+import com.kaimono.catalog.service.domain.BookChange;
+import com.kaimono.catalog.service.domain.BookChangeOffset;
+import com.kaimono.catalog.service.domain.BookChangeRepository;
+import com.kaimono.catalog.service.domain.BookCursor;
+import com.kaimono.catalog.service.domain.BookFilter;
+import com.kaimono.catalog.service.domain.BookRepository;
+import com.kaimono.catalog.service.domain.BookSort;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Read-only copy of the catalog held in {@link BookColumns}, serving listings without a database round trip.
+ * The copy is loaded once, then follows the change outbox: every refresh reloads the books whose ISBN changed since
+ * its offset, or the whole catalog when more than {@code max-incremental-changes} did. Until the first load
+ * completes, or after a failure until it reloads, there is no copy and listings fall back to the database.
+ * <p>
+ * A refresh that sees any change builds a whole new copy, allocating in proportion to the catalog rather than to the
+ * changes. All changes since the previous refresh are batched into that one copy, so {@code refresh-interval} bounds
+ * the garbage to one copy per interval; raising it trades staleness for allocation rate.
+ */
+@Component
+@ConditionalOnProperty(value = "kaimono.snapshot.enabled", havingValue = "true")
+public class BookSnapshot implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSnapshot.class);
+
+    private final BookRepository bookRepository;
+    private final BookChangeRepository bookChangeRepository;
+    private final KaimonoSnapshotProperties kaimonoSnapshotProperties;
+    private volatile BookColumns columns;
+    private volatile Disposable subscription;
+
+    public BookSnapshot(BookRepository bookRepository, BookChangeRepository bookChangeRepository,
+                        KaimonoSnapshotProperties kaimonoSnapshotProperties, MeterRegistry meterRegistry) {
+        this.bookRepository = bookRepository;
+        this.bookChangeRepository = bookChangeRepository;
+        this.kaimonoSnapshotProperties = kaimonoSnapshotProperties;
+
+        Gauge.builder("kaimono.snapshot.books", this, snapshot -> {
+                    var current = snapshot.columns;
+                    return current == null ? Double.NaN : current.size();
+                })
+                .description("Books held by the in-memory catalog snapshot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The page as {@link BookRepository#findPage} would return it, or nothing while there is no copy to serve from.
+     */
+    public Optional<List<Book>> findPage(BookFilter filter, BookSort sort, BookCursor after, int limit) {
+        var current = columns;
+        return current == null
+                ? Optional.empty()
+                : Optional.of(current.findPage(filter, sort, after, limit));
+    }
+
+    @Override
+    public void start() {
+        subscription = refreshes().subscribe();
+    }
+
+    @Override
+    public void stop() {
+        if (subscription != null)
+            subscription.dispose();
+
+        subscription = null;
+        columns = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return subscription != null;
+    }
+
+    Flux<Void> refreshes() {
+        return Flux.defer(() -> {
+                    var cursor = new AtomicReference<>(BookChangeOffset.ORIGIN);
+                    return reload(cursor).thenMany(Flux.interval(kaimonoSnapshotProperties.refreshInterval())
+                            .onBackpressureDrop()
+                            .concatMap(tick -> refresh(cursor), 1));
+                })
+                .doOnError(ex -> columns = null)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("Lost the catalog snapshot, reloading: {}",
+                                signal.failure().getMessage())));
+    }
+
+    // the offset is read before the books, so whatever changes while they load is replayed by the next refresh
+    private Mono<Void> reload(AtomicReference<BookChangeOffset> cursor) {
+        return bookChangeRepository.findLatestReleased()
+                .map(BookChange::offset)
+                .defaultIfEmpty(BookChangeOffset.ORIGIN)
+                .doOnNext(cursor::set)
+                .then(Mono.defer(() -> {
+                    var builder = BookColumns.builder();
+                    return bookRepository.streamAll(0L, kaimonoSnapshotProperties.fetchSize())
+                            .doOnNext(builder::add)
+                            .then(Mono.fromSupplier(builder::build));
+                }))
+                .doOnNext(loaded -> {
+                    columns = loaded;
+                    log.info("Loaded {} books into the catalog snapshot.", loaded.size());
+                })
+                .then();
+    }
+
+    private Mono<Void> refresh(AtomicReference<BookChangeOffset> cursor) {
+        var changedIsbns = new HashSet<String>();
+        var batchSize = kaimonoSnapshotProperties.batchSize();
+        var maxChanges = kaimonoSnapshotProperties.maxIncrementalChanges();
+
+        return nextBatch(cursor, changedIsbns)
+                .expand(batch -> batch.size() < batchSize || changedIsbns.size() > maxChanges
+                        ? Mono.empty()
+                        : nextBatch(cursor, changedIsbns))
+                .then(Mono.defer(() -> {
+                    if (changedIsbns.size() > maxChanges)
+                        return reload(cursor);
+                    if (changedIsbns.isEmpty())
+                        return Mono.empty();
+
+                    return bookRepository.findAllByIsbn(changedIsbns.toArray(String[]::new))
+                            .collectList()
+                            .doOnNext(books -> columns = columns.apply(changedIsbns, books))
+                            .then();
+                }));
+    }
+
+    private Mono<List<BookChange>> nextBatch(AtomicReference<BookChangeOffset> cursor, Set<String> changedIsbns) {
+        return Mono.defer(() -> {
+            var offset = cursor.get();
+            return bookChangeRepository.findReleasedAfter(offset.txid(), offset.id(), kaimonoSnapshotProperties.batchSize())
+                    .collectList()
+                    .doOnNext(batch -> {
+                        batch.forEach(change -> changedIsbns.add(change.isbn()));
+                        if (!batch.isEmpty())
+                            cursor.set(batch.get(batch.size() - 1).offset());
+                    });
+        });
+    }
+
+}
@@ -1,33 +1,121 @@
 package com.kaimono.catalog.service.web;
 
+import com.kaimono.catalog.service.cache.BookJsonCache;
 import com.kaimono.catalog.service.domain.Book;
 import com.kaimono.catalog.service.domain.BookAlreadyExistsException;
+import com.kaimono.catalog.service.domain.BookChange;
+import com.kaimono.catalog.service.domain.BookChangeOffset;
+import com.kaimono.catalog.service.domain.BookChangeRelay;
+import com.kaimono.catalog.service.domain.BookCursor;
+import com.kaimono.catalog.service.domain.BookFacets;
+import com.kaimono.catalog.service.domain.BookFilter;
+import com.kaimono.catalog.service.domain.BookImportResult;
+import com.kaimono.catalog.service.domain.BookImportService;
+import com.kaimono.catalog.service.domain.BookLookup;
+import com.kaimono.catalog.service.domain.BookSearchMode;
 import com.kaimono.catalog.service.domain.BookService;
+import com.kaimono.catalog.service.domain.BookSort;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.support.WebExchangeBindException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("books")
 public class BookController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookChangeRelay bookChangeRelay;
+    private final BookJsonCache bookJsonCache;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, BookImportService bookImportService,
+                          BookChangeRelay bookChangeRelay, BookJsonCache bookJsonCache) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
+        this.bookChangeRelay = bookChangeRelay;
+        this.bookJsonCache = bookJsonCache;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<List<Book>>> get(@ModelAttribute BookFilter filter,
+                                                @RequestParam(defaultValue = "ID") BookSort.Property sort,
+                                                @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+                                                @RequestParam(required = false) String after,
+                                                @RequestParam(required = false) Integer limit) {
+        var cursor = after == null ? null : BookCursor.parse(after, sort);
+        return bookService.viewBookPage(filter, new BookSort(sort, direction), cursor, limit)
+                .map(page -> ResponseEntity.ok()
+                        .eTag(BookEntityTags.of(page))
+                        .headers(headers -> {
+                            if (page.nextCursor() != null)
+                                headers.set(NEXT_CURSOR_HEADER, page.nextCursor().toString());
+                        })
+                        .body(page.books()));
+    }
+
+    @GetMapping(produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<Book> stream(@RequestParam(required = false) Long after) {
+        return bookService.streamBookList(after);
+    }
+
+    @GetMapping(params = "isbn", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<BookLookup> getByIsbns(@RequestParam("isbn") List<String> isbns) {
+        return bookService.viewBookDetails(isbns);
+    }
+
+    @GetMapping(value = "facets", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<BookFacets> facets(@ModelAttribute BookFilter filter,
+                                   @RequestParam(required = false) Double priceBucketWidth) {
+        return bookService.viewBookFacets(filter, priceBucketWidth);
     }
 
-    @GetMapping
-    public Flux<Book> get() {
-        return bookService.viewBookList();
+    @GetMapping(value = "changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<BookChange>> changes(@RequestParam(required = false) String since,
+                                                     @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        var resumeFrom = lastEventId != null ? lastEventId : since;
+        return bookChangeRelay.changesSince(resumeFrom == null ? null : BookChangeOffset.parse(resumeFrom))
+                .map(change -> ServerSentEvent.builder(change)
+                        .id(change.offset().toString())
+                        .event(change.type().name())
+                        .build());
     }
 
+    @GetMapping(value = "search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<Book> search(@RequestParam("q") String query,
+                             @RequestParam(defaultValue = "QUERY") BookSearchMode mode,
+                             @RequestParam(required = false) Integer page,
+                             @RequestParam(required = false) Integer limit) {
+        return bookService.searchBooks(query, mode, page, limit);
+    }
+
+    /**
+     * Writes the book's cached JSON encoding as is, so the codec does not serialize the same version again.
+     */
     @GetMapping("{isbn}")
-    public Mono<Book> getByIsbn(@PathVariable String isbn) {
-        return bookService.viewBookDetails(isbn);
+    public Mono<ResponseEntity<byte[]>> getByIsbn(@PathVariable String isbn) {
+        return bookService.viewBookDetails(isbn)
+                .map(book -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .headers(headers -> {
+                            var eTag = BookEntityTags.of(book);
+                            if (eTag != null)
+                                headers.setETag(eTag);
+                            if (book.lastModifiedDate() != null)
+                                headers.setLastModified(book.lastModifiedDate());
+                        })
+                        .body(bookJsonCache.encode(book)));
     }
 
     @PostMapping
@@ -38,6 +126,14 @@ public class BookController {
                 .onErrorResume(WebExchangeBindException.class, Mono::error);
     }
 
+    @PostMapping(
+            value = "batch",
+            consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE },
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<BookImportResult> postBatch(@RequestBody Flux<Book> books) {
+        return bookImportService.importBooks(books);
+    }
+
     @DeleteMapping("{isbn}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public Mono<Void> delete(@PathVariable String isbn) {
@@ -1,7 +1,13 @@
 package com.kaimono.catalog.service.web;
 
 import com.kaimono.catalog.service.domain.BookAlreadyExistsException;
+import com.kaimono.catalog.service.domain.BookLookupTooLargeException;
 import com.kaimono.catalog.service.domain.BookNotFoundException;
+import com.kaimono.catalog.service.domain.BookVersionMismatchException;
+import com.kaimono.catalog.service.domain.InvalidBookChangeOffsetException;
+import com.kaimono.catalog.service.domain.InvalidBookCursorException;
+import com.kaimono.catalog.service.domain.InvalidIsbnException;
+import com.kaimono.catalog.service.domain.InvalidPriceBucketWidthException;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -27,6 +33,42 @@ public class BookControllerAdvice {
         return ex.getMessage();
     }
 
+    @ExceptionHandler(BookLookupTooLargeException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String bookLookupTooLargeHandler(BookLookupTooLargeException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(BookVersionMismatchException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String bookVersionMismatchHandler(BookVersionMismatchException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(InvalidBookChangeOffsetException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String invalidBookChangeOffsetHandler(InvalidBookChangeOffsetException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(InvalidBookCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String invalidBookCursorHandler(InvalidBookCursorException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(InvalidIsbnException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String invalidIsbnHandler(InvalidIsbnException ex) {
+        return ex.getMessage();
+    }
+
+    @ExceptionHandler(InvalidPriceBucketWidthException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String invalidPriceBucketWidthHandler(InvalidPriceBucketWidthException ex) {
+        return ex.getMessage();
+    }
+
     @ExceptionHandler(WebExchangeBindException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, String> handleValidationException(WebExchangeBindException ex) {
@@ -0,0 +1,47 @@
+package com.kaimono.catalog.service.web;
+
+import com.kaimono.catalog.service.domain.Book;
+import com.kaimono.catalog.service.domain.BookPage;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+final class BookEntityTags {
+
+    private BookEntityTags() {}
+
+    /**
+     * A book's representation only changes together with its version, so id and version
+     * are enough for a strong validator; unsaved books have neither and get no tag.
+     */
+    static String of(Book book) {
+        if (book.id() == null)
+            return null;
+
+        return "\"%d-%d\"".formatted(book.id(), book.version());
+    }
+
+    /**
+     * Digests the id and version of every book in the page along with its cursor, so an
+     * insert, update or delete that changes what the page would render changes the tag.
+     */
+    static String of(BookPage page) {
+        var digest = sha256();
+        for (var book : page.books())
+            digest.update("%s-%d;".formatted(book.id(), book.version()).getBytes(StandardCharsets.US_ASCII));
+
+        digest.update(String.valueOf(page.nextCursor()).getBytes(StandardCharsets.US_ASCII));
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required on every Java platform.", e);
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.kaimono.catalog.service.web;
+
+import com.kaimono.catalog.service.routing.DatabaseRoute;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lets a caller that has just written pin its reads to the primary with {@code X-Read-Your-Writes: true},
+ * instead of risking a replica that has not caught up yet.
+ */
+@Component
+public class ReadYourWritesFilter implements WebFilter {
+
+    static final String READ_YOUR_WRITES_HEADER = "X-Read-Your-Writes";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var readYourWrites = Boolean.parseBoolean(exchange.getRequest().getHeaders().getFirst(READ_YOUR_WRITES_HEADER));
+        if (!readYourWrites)
+            return chain.filter(exchange);
+
+        return chain.filter(exchange).contextWrite(DatabaseRoute::primary);
+    }
+
+}
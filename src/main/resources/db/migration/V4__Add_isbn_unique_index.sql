@@ -0,0 +1,9 @@
+-- Precondition: book.isbn holds no duplicates. The build fails naming the first duplicated ISBN otherwise, and
+-- those rows have to be merged or deleted by hand before the migration is retried, as only an operator can tell
+-- which copy is the right one. They are listed by:
+--   SELECT isbn, count(*) FROM book GROUP BY isbn HAVING count(*) > 1;
+-- Built concurrently so that writes go on meanwhile, which Flyway runs outside a transaction. A failed build
+-- leaves an invalid index behind, dropped first on the retry.
+DROP INDEX CONCURRENTLY IF EXISTS book_isbn_key;
+
+CREATE UNIQUE INDEX CONCURRENTLY book_isbn_key ON book (isbn);
@@ -0,0 +1,11 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE book ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(author, '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(publisher, '')), 'C')
+) STORED;
+
+CREATE INDEX book_search_vector_idx ON book USING gin (search_vector);
+CREATE INDEX book_title_trgm_idx ON book USING gin (title gin_trgm_ops);
+CREATE INDEX book_author_trgm_idx ON book USING gin (author gin_trgm_ops);
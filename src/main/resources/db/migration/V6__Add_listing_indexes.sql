@@ -0,0 +1,5 @@
+CREATE INDEX book_price_id_idx ON book (price, id);
+CREATE INDEX book_title_id_idx ON book (title, id);
+CREATE INDEX book_created_date_id_idx ON book (created_date, id);
+CREATE INDEX book_publisher_price_id_idx ON book (publisher, price, id);
+CREATE INDEX book_author_price_id_idx ON book (author, price, id);
@@ -0,0 +1,12 @@
+-- txid orders changes by writing transaction: ids are drawn before commit, so a lower id can become visible after a higher one
+CREATE TABLE book_change (
+
+                      id                      BIGSERIAL PRIMARY KEY NOT NULL,
+                      txid                    bigint NOT NULL DEFAULT (pg_current_xact_id()::text::bigint),
+                      isbn                    varchar(255) NOT NULL,
+                      type                    varchar(16) NOT NULL,
+                      version                 integer NOT NULL
+
+);
+
+CREATE INDEX book_change_txid_id_idx ON book_change (txid, id);
@@ -0,0 +1,11 @@
+-- notifications are delivered on commit only, so listeners never evict ahead of the write becoming visible
+CREATE FUNCTION notify_book_change() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('book_change', NEW.isbn);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER book_change_notify
+    AFTER INSERT ON book_change
+    FOR EACH ROW EXECUTE FUNCTION notify_book_change();
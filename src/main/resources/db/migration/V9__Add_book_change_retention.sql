@@ -0,0 +1,4 @@
+-- rows are appended in roughly recording order, so a BRIN index is enough for the retention cleanup to find old ones
+ALTER TABLE book_change ADD COLUMN recorded_at timestamptz NOT NULL DEFAULT now();
+
+CREATE INDEX book_change_recorded_at_idx ON book_change USING brin (recorded_at);
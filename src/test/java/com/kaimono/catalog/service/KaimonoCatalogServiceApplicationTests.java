@@ -55,7 +55,7 @@ class KaimonoCatalogServiceApplicationTests {
     }
 
     @ParameterizedTest
-    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
     public void whenGetRequestWithIdThenBookReturned(@CsvToBook Book book) {
         var expectedBook = webClient
                 .post()
@@ -88,7 +88,7 @@ class KaimonoCatalogServiceApplicationTests {
     }
 
     @ParameterizedTest
-    @CsvSource("1234567893, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    @CsvSource("1234567008, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
     public void whenPostRequestThenBookCreated(@CsvToBook Book book) {
         webClient
                 .post()
@@ -107,7 +107,7 @@ class KaimonoCatalogServiceApplicationTests {
     }
 
     @ParameterizedTest
-    @CsvSource("1234567899, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    @CsvSource("1234567016, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
     public void whenPutRequestThenBookUpdated(@CsvToBook Book book) {
         var createdBook = webClient
                 .post()
@@ -156,7 +156,7 @@ class KaimonoCatalogServiceApplicationTests {
     }
 
     @ParameterizedTest
-    @CsvSource("8977557964, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    @CsvSource("8977557968, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
     void whenDeleteRequestThenBookDeleted(@CsvToBook Book book) {
         webClient
                 .post()
@@ -0,0 +1,107 @@
+package com.kaimono.catalog.service.admission;
+
+import com.kaimono.catalog.service.config.KaimonoAdmissionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdmissionControlFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(
+            new KaimonoAdmissionProperties(0.5, 0.9, Duration.ofSeconds(2),
+                    new KaimonoAdmissionProperties.Limit(2, 1, 4, Duration.ofSeconds(1)),
+                    Map.of("/books/search", new KaimonoAdmissionProperties.Limit(1, 1, 1, Duration.ofSeconds(1)))),
+            meterRegistry);
+
+    private final Sinks.Empty<Void> pendingResponse = Sinks.empty();
+    private final WebFilterChain pendingChain = exchange -> pendingResponse.asMono();
+
+    @ParameterizedTest
+    @ValueSource(strings = "/books/1234567890")
+    void whenWriteShareInFlightThenWriteShedButReadAdmitted(String path) {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.put(path)), pendingChain).subscribe();
+
+        var write = MockServerWebExchange.from(MockServerHttpRequest.put(path));
+        StepVerifier.create(filter.filter(write, exchange -> Mono.empty())).verifyComplete();
+        assertThat(write.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(write.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+
+        var read = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        StepVerifier.create(filter.filter(read, exchange -> Mono.empty())).verifyComplete();
+        assertThat(read.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        assertThat(rejected("default", "write")).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = "/books/search")
+    void whenRouteAtItsLimitThenOtherRoutesStillAdmitted(String path) {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get(path).queryParam("q", "nietzsche")),
+                pendingChain).subscribe();
+
+        var search = MockServerWebExchange.from(MockServerHttpRequest.get(path).queryParam("q", "nietzsche"));
+        StepVerifier.create(filter.filter(search, exchange -> Mono.empty())).verifyComplete();
+        assertThat(search.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        var page = MockServerWebExchange.from(MockServerHttpRequest.get("/books"));
+        StepVerifier.create(filter.filter(page, exchange -> Mono.empty())).verifyComplete();
+        assertThat(page.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        pendingResponse.tryEmitEmpty();
+        var retried = MockServerWebExchange.from(MockServerHttpRequest.get(path).queryParam("q", "nietzsche"));
+        StepVerifier.create(filter.filter(retried, exchange -> Mono.empty())).verifyComplete();
+        assertThat(retried.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = "/books")
+    void whenStreamingThenNeverLimited(String path) {
+        for (var i = 0; i < 10; i++)
+            filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get(path)
+                    .accept(MediaType.APPLICATION_NDJSON)), pendingChain).subscribe();
+
+        var page = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        StepVerifier.create(filter.filter(page, exchange -> Mono.empty())).verifyComplete();
+        assertThat(page.getResponse().getStatusCode()).isNotEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "GET, /books/1234567890, application/x-ndjson",
+            "POST, /books, application/x-ndjson",
+            "GET, /books, 'application/json, application/x-ndjson;q=0.5'"
+    })
+    void whenStreamingTypeAcceptedOutsideStreamingEndpointsThenLimited(String method, String path, String accept) {
+        for (var i = 0; i < 2; i++)
+            filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/books/1234567890")), pendingChain)
+                    .subscribe();
+
+        var request = MockServerWebExchange.from(MockServerHttpRequest.method(HttpMethod.valueOf(method), path)
+                .header(HttpHeaders.ACCEPT, accept));
+        StepVerifier.create(filter.filter(request, exchange -> Mono.empty())).verifyComplete();
+        assertThat(request.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private double rejected(String route, String kind) {
+        return meterRegistry.get("kaimono.admission.rejected").tag("route", route).tag("kind", kind).counter().count();
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.kaimono.catalog.service.admission;
+
+import com.kaimono.catalog.service.config.KaimonoAdmissionProperties;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AimdLimiterTests {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    @ParameterizedTest
+    @ValueSource(ints = 4)
+    void whenLimitReachedThenNotAdmittedUntilReleased(int initial) {
+        var limiter = limiterOf(initial);
+        for (var i = 0; i < initial; i++)
+            assertThat(limiter.tryAcquire(1.0)).isTrue();
+
+        assertThat(limiter.tryAcquire(1.0)).isFalse();
+        limiter.release();
+        assertThat(limiter.tryAcquire(1.0)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = 4)
+    void whenShareReachedThenLowerPriorityShedFirst(int initial) {
+        var limiter = limiterOf(initial);
+        assertThat(limiter.tryAcquire(0.5)).isTrue();
+        assertThat(limiter.tryAcquire(0.5)).isTrue();
+
+        assertThat(limiter.tryAcquire(0.5)).isFalse();
+        assertThat(limiter.tryAcquire(1.0)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = 4)
+    void whenSlowOrFailedThenLimitDecreasedDownToMin(int initial) {
+        var limiter = limiterOf(initial);
+
+        limiter.tryAcquire(1.0);
+        limiter.release(SLOW, false);
+        assertThat(limiter.limit()).isEqualTo(initial * 0.5);
+
+        for (var i = 0; i < 5; i++) {
+            limiter.tryAcquire(1.0);
+            limiter.release(FAST, true);
+        }
+        assertThat(limiter.limit()).isEqualTo(1.0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = 4)
+    void whenFastAndBusyThenLimitIncreasedUpToMax(int initial) {
+        var limiter = limiterOf(initial);
+
+        for (var i = 0; i < 100; i++) {
+            while (limiter.tryAcquire(1.0)) { }
+            limiter.release(FAST, false);
+            limiter.release();
+        }
+
+        assertThat(limiter.limit()).isEqualTo(8.0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = 4)
+    void whenFastButIdleThenLimitUnchanged(int initial) {
+        var limiter = limiterOf(initial);
+
+        limiter.tryAcquire(1.0);
+        limiter.release(FAST, false);
+
+        assertThat(limiter.limit()).isEqualTo(initial);
+    }
+
+    private static AimdLimiter limiterOf(int initial) {
+        return new AimdLimiter(
+                new KaimonoAdmissionProperties.Limit(initial, 1, initial * 2, Duration.ofMillis(100)), 0.5);
+    }
+
+}
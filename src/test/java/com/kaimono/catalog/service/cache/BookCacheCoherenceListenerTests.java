@@ -0,0 +1,66 @@
+package com.kaimono.catalog.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaimono.catalog.service.config.KaimonoCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+@Testcontainers
+public class BookCacheCoherenceListenerTests {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresql =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:14.4"));
+
+    @ParameterizedTest
+    @ValueSource(strings = "1234567890")
+    void whenNotifiedThenIsbnInvalidatedAfterFullInvalidationOnConnect(String isbn) {
+        var connectionFactory = connectionFactory();
+        var cacheProperties = new KaimonoCacheProperties(100L, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        var meterRegistry = new SimpleMeterRegistry();
+        var bookCache = new BookCache(cacheProperties,
+                new BookJsonCache(cacheProperties, new ObjectMapper(), meterRegistry), meterRegistry);
+        var listener = new BookCacheCoherenceListener(bookCache, connectionFactory);
+
+        StepVerifier.create(listener.invalidations())
+                .expectNext(BookCacheCoherenceListener.ALL)
+                .then(() -> notify(connectionFactory, isbn).block())
+                .expectNext(isbn)
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    private static Mono<Void> notify(ConnectionFactory connectionFactory, String isbn) {
+        return Mono.usingWhen(
+                connectionFactory.create(),
+                connection -> Mono.from(connection
+                                .createStatement("select pg_notify('%s', $1)".formatted(BookCacheCoherenceListener.CHANNEL))
+                                .bind("$1", isbn)
+                                .execute())
+                        .flatMapMany(result -> result.map((row, metadata) -> true))
+                        .then(),
+                Connection::close);
+    }
+
+    private static ConnectionFactory connectionFactory() {
+        return ConnectionFactories.get(String.format("r2dbc:postgresql://%s:%s@%s:%s/%s",
+                postgresql.getUsername(),
+                postgresql.getPassword(),
+                postgresql.getHost(),
+                postgresql.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT),
+                postgresql.getDatabaseName()));
+    }
+
+}
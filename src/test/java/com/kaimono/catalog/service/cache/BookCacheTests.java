@@ -0,0 +1,83 @@
+package com.kaimono.catalog.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaimono.catalog.service.config.KaimonoCacheProperties;
+import com.kaimono.catalog.service.domain.Book;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import junit.aggregator.book.CsvToBook;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookCacheTests {
+
+    private static final KaimonoCacheProperties CACHE_PROPERTIES =
+            new KaimonoCacheProperties(100L, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    private final BookCache bookCache = new BookCache(CACHE_PROPERTIES,
+            new BookJsonCache(CACHE_PROPERTIES, new ObjectMapper(), new SimpleMeterRegistry()),
+            new SimpleMeterRegistry());
+
+    @ParameterizedTest
+    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void whenConcurrentMissesThenBookLoadedOnce(@CsvToBook Book book) {
+        var loads = new AtomicInteger();
+        var pendingBook = Sinks.<Book>one();
+        Function<String, Mono<Book>> loader = isbn -> {
+            loads.incrementAndGet();
+            return pendingBook.asMono();
+        };
+
+        var lookups = Flux.merge(
+                bookCache.get(book.isbn(), loader),
+                bookCache.get(book.isbn(), loader));
+
+        StepVerifier.create(lookups)
+                .then(() -> pendingBook.tryEmitValue(book))
+                .expectNext(book, book)
+                .verifyComplete();
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = "1234561232")
+    void whenBookNotExistingThenNegativeLookupCached(String isbn) {
+        var loads = new AtomicInteger();
+        Function<String, Mono<Book>> loader = key -> Mono.fromRunnable(loads::incrementAndGet);
+
+        StepVerifier.create(bookCache.get(isbn, loader)).verifyComplete();
+        StepVerifier.create(bookCache.get(isbn, loader)).verifyComplete();
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @ParameterizedTest
+    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void whenBookInvalidatedThenBookLoadedAgain(@CsvToBook Book book) {
+        var loads = new AtomicInteger();
+        Function<String, Mono<Book>> loader = isbn -> Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return book;
+        });
+
+        bookCache.put(book);
+        StepVerifier.create(bookCache.get(book.isbn(), loader)).expectNext(book).verifyComplete();
+
+        bookCache.invalidate(book.isbn());
+        StepVerifier.create(bookCache.get(book.isbn(), loader)).expectNext(book).verifyComplete();
+
+        assertThat(loads).hasValue(1);
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.kaimono.catalog.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaimono.catalog.service.config.KaimonoCacheProperties;
+import com.kaimono.catalog.service.domain.Book;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import junit.aggregator.book.CsvToBook;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookJsonCacheTests {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final BookJsonCache bookJsonCache = new BookJsonCache(
+            new KaimonoCacheProperties(100L, Duration.ofMinutes(1), Duration.ofMinutes(1)),
+            objectMapper, new SimpleMeterRegistry());
+
+    @ParameterizedTest
+    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void whenSameVersionEncodedAgainThenCachedBytesReused(@CsvToBook Book book) throws Exception {
+        var storedBook = storedVersionOf(book, 1);
+
+        var json = bookJsonCache.encode(storedBook);
+
+        assertThat(json).isEqualTo(objectMapper.writeValueAsBytes(storedBook));
+        assertThat(bookJsonCache.encode(storedBook)).isSameAs(json);
+    }
+
+    @ParameterizedTest
+    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void whenNewerVersionEncodedThenReEncoded(@CsvToBook Book book) throws Exception {
+        var json = bookJsonCache.encode(storedVersionOf(book, 1));
+        var newerBook = storedVersionOf(book, 2);
+
+        assertThat(bookJsonCache.encode(newerBook))
+                .isNotSameAs(json)
+                .isEqualTo(objectMapper.writeValueAsBytes(newerBook));
+    }
+
+    @ParameterizedTest
+    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void whenInvalidatedThenReEncoded(@CsvToBook Book book) {
+        var storedBook = storedVersionOf(book, 1);
+        var json = bookJsonCache.encode(storedBook);
+
+        bookJsonCache.invalidate(book.isbn());
+
+        assertThat(bookJsonCache.encode(storedBook)).isNotSameAs(json).isEqualTo(json);
+    }
+
+    @ParameterizedTest
+    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void whenBookUnsavedThenNotCached(@CsvToBook Book book) {
+        assertThat(bookJsonCache.encode(book)).isNotSameAs(bookJsonCache.encode(book));
+    }
+
+    private static Book storedVersionOf(Book book, int version) {
+        var lastModified = Instant.parse("2023-03-01T10:15:30Z");
+        return new Book(41L, book.isbn(), book.title(), book.author(), book.publisher(), book.price(),
+                lastModified, lastModified, version, null, null);
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.kaimono.catalog.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SingleFlightTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+
+    @ParameterizedTest
+    @ValueSource(strings = "page")
+    void whenConcurrentCallsThenLoadedOnceAndFollowersCounted(String key) {
+        var loads = new AtomicInteger();
+        var pendingValue = Sinks.<String>one();
+        Function<String, Mono<String>> loader = ignored -> {
+            loads.incrementAndGet();
+            return pendingValue.asMono();
+        };
+
+        var calls = Flux.merge(
+                singleFlight.get(key, loader),
+                singleFlight.get(key, loader),
+                singleFlight.get(key, loader));
+
+        StepVerifier.create(calls)
+                .then(() -> pendingValue.tryEmitValue(key))
+                .expectNext(key, key, key)
+                .verifyComplete();
+
+        assertThat(loads).hasValue(1);
+        assertThat(count("leader")).isEqualTo(1);
+        assertThat(count("follower")).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = "page")
+    void whenLoadCompletedThenNextCallLoadsAgain(String key) {
+        var loads = new AtomicInteger();
+        Function<String, Mono<String>> loader = ignored -> Mono.fromSupplier(() -> key + loads.incrementAndGet());
+
+        StepVerifier.create(singleFlight.get(key, loader)).expectNext(key + 1).verifyComplete();
+        StepVerifier.create(singleFlight.get(key, loader)).expectNext(key + 2).verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = "page")
+    void whenOneCallerCancelsThenOthersStillServed(String key) {
+        var pendingValue = Sinks.<String>one();
+        Function<String, Mono<String>> loader = ignored -> pendingValue.asMono();
+
+        StepVerifier.create(singleFlight.get(key, loader))
+                .thenCancel()
+                .verify();
+
+        StepVerifier.create(singleFlight.get(key, loader))
+                .then(() -> pendingValue.tryEmitValue(key))
+                .expectNext(key)
+                .verifyComplete();
+
+        assertThat(count("follower")).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = "page")
+    void whenLoadFailsThenEveryCallerFailsAndNothingKept(String key) {
+        Function<String, Mono<String>> failing = ignored -> Mono.error(new IllegalStateException("boom"));
+
+        StepVerifier.create(singleFlight.get(key, failing)).verifyErrorMessage("boom");
+        StepVerifier.create(singleFlight.get(key, ignored -> Mono.just(key))).expectNext(key).verifyComplete();
+    }
+
+    private double count(String role) {
+        return meterRegistry.get(SingleFlight.METRIC).tag("flight", "test").tag("role", role).counter().count();
+    }
+
+}
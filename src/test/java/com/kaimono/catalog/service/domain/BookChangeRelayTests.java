@@ -0,0 +1,77 @@
+package com.kaimono.catalog.service.domain;
+
+import com.kaimono.catalog.service.config.KaimonoChangesProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookChangeRelayTests {
+
+    @Mock
+    private BookChangeRepository bookChangeRepository;
+
+    private BookChangeRelay bookChangeRelay;
+
+    @BeforeEach
+    void setUp() {
+        bookChangeRelay = new BookChangeRelay(bookChangeRepository, new KaimonoChangesProperties(Duration.ofMillis(50), 2,
+                Duration.ofDays(7), Duration.ofHours(1)));
+    }
+
+    @Test
+    void whenChangesReleasedAfterOffsetThenStreamedInBatchesInOrder() {
+        var first = new BookChange(3L, 10L, "1234567890", BookChange.Type.CREATED, 1);
+        var second = new BookChange(4L, 11L, "1234567890", BookChange.Type.UPDATED, 2);
+        var third = new BookChange(5L, 12L, "1234567890", BookChange.Type.DELETED, 2);
+
+        when(bookChangeRepository.findLatestReleased()).thenReturn(Mono.just(third));
+        when(bookChangeRepository.findReleasedAfter(9, 2, 2)).thenReturn(Flux.just(first, second));
+        when(bookChangeRepository.findReleasedAfter(11, 4, 2)).thenReturn(Flux.just(third));
+
+        StepVerifier.create(bookChangeRelay.changesSince(new BookChangeOffset(9, 2)).take(3))
+                .expectNext(first, second, third)
+                .verifyComplete();
+    }
+
+    @Test
+    void whenNoOffsetThenOnlyLaterChangesStreamed() {
+        var latest = new BookChange(5L, 12L, "1234567890", BookChange.Type.CREATED, 1);
+        when(bookChangeRepository.findLatestReleased()).thenReturn(Mono.just(latest));
+
+        StepVerifier.create(bookChangeRelay.changesSince(null))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(200))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void offsetsOrderedByTransactionThenId() {
+        assertThat(new BookChangeOffset(2, 1).isAfter(new BookChangeOffset(1, 9))).isTrue();
+        assertThat(new BookChangeOffset(1, 9).isAfter(new BookChangeOffset(1, 8))).isTrue();
+        assertThat(new BookChangeOffset(1, 8).isAfter(new BookChangeOffset(1, 8))).isFalse();
+        assertThat(BookChangeOffset.parse("12-5")).isEqualTo(new BookChangeOffset(12, 5));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "12", "12-", "x-5" })
+    void whenOffsetMalformedThenRejected(String offset) {
+        assertThatThrownBy(() -> BookChangeOffset.parse(offset))
+                .isInstanceOf(InvalidBookChangeOffsetException.class);
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.kaimono.catalog.service.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaimono.catalog.service.cache.BookCache;
+import com.kaimono.catalog.service.cache.BookJsonCache;
+import com.kaimono.catalog.service.config.KaimonoBatchProperties;
+import com.kaimono.catalog.service.config.KaimonoCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import junit.aggregator.book.CsvToBook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookImportServiceTests {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    private BookImportService bookImportService;
+
+    @BeforeEach
+    void setUp() {
+        var cacheProperties = new KaimonoCacheProperties(100L, Duration.ofMinutes(1), Duration.ofSeconds(1));
+        var meterRegistry = new SimpleMeterRegistry();
+        var bookCache = new BookCache(cacheProperties,
+                new BookJsonCache(cacheProperties, new ObjectMapper(), meterRegistry), meterRegistry);
+
+        bookImportService = new BookImportService(
+                bookRepository,
+                bookCache,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new KaimonoBatchProperties(2));
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void whenImportingBooksThenEveryBookReportedInOrder(@CsvToBook Book book) {
+        var existingBook = Book.of("1234567814", book.title(), book.author(), book.publisher(), book.price());
+        var invalidBook = Book.of("AV34567890", book.title(), book.author(), book.publisher(), book.price());
+
+        when(bookRepository.insertAllIfAbsent(List.of(book, existingBook)))
+                .thenReturn(Flux.just(book));
+
+        StepVerifier.create(bookImportService.importBooks(Flux.just(book, existingBook, invalidBook)))
+                .expectNext(BookImportResult.created(0, book.isbn()))
+                .expectNext(BookImportResult.alreadyExists(1, existingBook.isbn()))
+                .expectNext(BookImportResult.invalid(2, invalidBook.isbn(), "The ISBN format must be valid."))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void whenIsbnRepeatedInChunkThenOnlyFirstCreated(@CsvToBook Book book) {
+        when(bookRepository.insertAllIfAbsent(List.of(book, book)))
+                .thenReturn(Flux.just(book));
+
+        StepVerifier.create(bookImportService.importBooks(Flux.just(book, book)))
+                .expectNext(BookImportResult.created(0, book.isbn()))
+                .expectNext(BookImportResult.alreadyExists(1, book.isbn()))
+                .verifyComplete();
+    }
+
+}
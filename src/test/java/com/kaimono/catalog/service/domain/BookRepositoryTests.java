@@ -8,6 +8,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -17,7 +18,10 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataR2dbcTest
 @Testcontainers
@@ -27,6 +31,9 @@ public class BookRepositoryTests {
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private BookChangeRepository bookChangeRepository;
+
     @Container
     private static final PostgreSQLContainer<?> postgresql =
             new PostgreSQLContainer<>(DockerImageName.parse("postgres:14.4"));
@@ -44,7 +51,7 @@ public class BookRepositoryTests {
 
     @ParameterizedTest
     @WithMockUser("mock-user")
-    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    @CsvSource("1234567894, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
     void whenCreateBookAuthenticatedThenAuditMetadata(@CsvToBook Book book) {
         StepVerifier.create(bookRepository.save(book))
                 .assertNext(incomingBook -> {
@@ -84,6 +91,238 @@ public class BookRepositoryTests {
         StepVerifier.create(savedBook).verifyComplete();
     }
 
+    @ParameterizedTest
+    @WithMockUser("mock-user")
+    @CsvSource("1234567892, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void insertBookWhenNotExistingThenAuditMetadata(@CsvToBook Book book) {
+        StepVerifier.create(bookRepository.insertIfAbsent(book))
+                .assertNext(incomingBook -> {
+                    assertThat(incomingBook.id()).isNotNull();
+                    assertThat(incomingBook.version()).isEqualTo(1);
+                    assertThat(incomingBook.createdDate()).isNotNull();
+                    assertThat(incomingBook.createdBy()).isEqualTo("mock-user");
+                    assertThat(incomingBook.lastModifiedBy()).isEqualTo("mock-user");
+                })
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @CsvSource("1234567893, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void insertBookWhenExistingThenEmpty(@CsvToBook Book book) {
+        var insertedTwice = bookRepository.insertIfAbsent(book)
+                .then(bookRepository.insertIfAbsent(book));
+
+        StepVerifier.create(insertedTwice).verifyComplete();
+    }
+
+    @ParameterizedTest
+    @WithMockUser("mock-user")
+    @ValueSource(strings = "Kaimono Batch Press")
+    void insertAllWhenExistingAndDuplicatedThenOnlyNewBooksInsertedOnce(String publisher) {
+        var existingBook = Book.of("1235100001", "Existing", "Author", publisher, 5.0);
+        var books = List.of(
+                Book.of("1235100002", "First", "Author", publisher, 10.0),
+                Book.of("1235100001", "Overwritten", "Author", publisher, 15.0),
+                Book.of("1235100003", "Second", "Author", publisher, 20.0),
+                Book.of("1235100002", "Duplicate", "Author", publisher, 25.0));
+
+        var insertedBooks = bookRepository.insertIfAbsent(existingBook)
+                .thenMany(bookRepository.insertAllIfAbsent(books))
+                .collectList();
+
+        StepVerifier.create(insertedBooks)
+                .assertNext(incomingBooks -> {
+                    assertThat(incomingBooks).extracting(Book::isbn, Book::title)
+                            .containsExactlyInAnyOrder(
+                                    tuple("1235100002", "First"),
+                                    tuple("1235100003", "Second"));
+                    assertThat(incomingBooks).allSatisfy(incomingBook -> {
+                        assertThat(incomingBook.id()).isNotNull();
+                        assertThat(incomingBook.version()).isEqualTo(1);
+                        assertThat(incomingBook.createdDate()).isNotNull();
+                        assertThat(incomingBook.lastModifiedDate()).isEqualTo(incomingBook.createdDate());
+                        assertThat(incomingBook.createdBy()).isEqualTo("mock-user");
+                        assertThat(incomingBook.lastModifiedBy()).isEqualTo("mock-user");
+                    });
+                })
+                .verifyComplete();
+
+        StepVerifier.create(bookRepository.findByIsbn(existingBook.isbn()))
+                .expectNextMatches(storedBook -> storedBook.title().equals("Existing") && storedBook.version() == 1)
+                .verifyComplete();
+
+        var createdIsbns = bookChangeRepository.findReleasedAfter(0, 0, 1000)
+                .filter(change -> change.isbn().startsWith("12351") && change.type() == BookChange.Type.CREATED)
+                .map(BookChange::isbn)
+                .collectList();
+
+        StepVerifier.create(createdIsbns)
+                .assertNext(isbns -> assertThat(isbns)
+                        .containsExactlyInAnyOrder("1235100001", "1235100002", "1235100003"))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @CsvSource("1234567895, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void upsertBookWhenExistingThenUpdatedAndVersionIncremented(@CsvToBook Book book) {
+        var repricedBook = Book.of(book.isbn(), book.title(), book.author(), book.publisher(), 7.90);
+
+        var upsertedBook = bookRepository.upsert(book.isbn(), book)
+                .then(bookRepository.upsert(book.isbn(), repricedBook));
+
+        StepVerifier.create(upsertedBook)
+                .assertNext(incomingBook -> {
+                    assertThat(incomingBook.price()).isEqualTo(7.90);
+                    assertThat(incomingBook.version()).isEqualTo(2);
+                    assertThat(incomingBook.lastModifiedDate()).isAfterOrEqualTo(incomingBook.createdDate());
+                })
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @CsvSource("1234567896, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void upsertBookWhenVersionStaleThenEmpty(@CsvToBook Book book) {
+        var upsertedBook = bookRepository.upsert(book.isbn(), book)
+                .map(insertedBook -> new Book(insertedBook.id(), insertedBook.isbn(), insertedBook.title(),
+                        insertedBook.author(), insertedBook.publisher(), insertedBook.price(),
+                        insertedBook.createdDate(), insertedBook.lastModifiedDate(), insertedBook.version() + 1,
+                        insertedBook.createdBy(), insertedBook.lastModifiedBy()))
+                .flatMap(staleBook -> bookRepository.upsert(book.isbn(), staleBook));
+
+        StepVerifier.create(upsertedBook).verifyComplete();
+    }
+
+    @ParameterizedTest
+    @CsvSource("1234567898, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void upsertBookWhenVersionedAndDeletedThenEmptyAndNotRecreated(@CsvToBook Book book) {
+        var upsertedBook = bookRepository.upsert(book.isbn(), book)
+                .flatMap(insertedBook -> bookRepository.deleteByIsbn(book.isbn()).thenReturn(insertedBook))
+                .flatMap(readBook -> bookRepository.upsert(book.isbn(), readBook));
+
+        StepVerifier.create(upsertedBook).verifyComplete();
+
+        StepVerifier.create(bookRepository.findByIsbn(book.isbn())).verifyComplete();
+    }
+
+    @ParameterizedTest
+    @CsvSource("1234567897, Also sprach Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void searchBookByQueryPrefixAndSimilarity(@CsvToBook Book book) {
+        var savedBook = bookRepository.save(book);
+
+        StepVerifier.create(savedBook.thenMany(bookRepository.search("sprach zarathustra", 10, 0)))
+                .expectNextMatches(incomingBook -> incomingBook.isbn().equals(book.isbn()))
+                .verifyComplete();
+
+        StepVerifier.create(bookRepository.searchByPrefix("spra:* & zara:*", "Zara%", 10, 0))
+                .expectNextMatches(incomingBook -> incomingBook.isbn().equals(book.isbn()))
+                .verifyComplete();
+
+        StepVerifier.create(bookRepository.searchBySimilarity("Also sprach Zarathustre", 10, 0).collectList())
+                .assertNext(incomingBooks -> assertThat(incomingBooks)
+                        .extracting(Book::isbn)
+                        .contains(book.isbn()))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "1234500001", "1234500002", "1234500003" })
+    void findPageAfterCursorInIdOrder(String isbn) {
+        var savedBook = bookRepository.save(Book.of(isbn, "Title", "Author", "Publisher", 9.90));
+
+        var page = savedBook
+                .flatMapMany(book -> bookRepository.findPage(BookFilter.NONE, BookSort.DEFAULT,
+                        new BookCursor(BookSort.Property.ID, null, book.id() - 1), 2));
+
+        StepVerifier.create(page)
+                .expectNextMatches(incomingBook -> incomingBook.isbn().equals(isbn))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "PRICE, 123460100", "TITLE, 123460200", "CREATED_DATE, 123460300" })
+    void findPageAfterDeletedCursorRowResumesAfterIt(BookSort.Property property, String isbnPrefix) {
+        var publisher = "Kaimono " + property + " Press";
+        var sort = new BookSort(property, Sort.Direction.ASC);
+        var filter = new BookFilter(null, null, publisher, null);
+
+        var savedBooks = bookRepository.save(Book.of(isbnPrefix + "1", "Title A", "Author", publisher, 5.0))
+                .then(bookRepository.save(Book.of(isbnPrefix + "2", "Title B", "Author", publisher, 15.0)))
+                .then(bookRepository.save(Book.of(isbnPrefix + "3", "Title C", "Author", publisher, 25.0)));
+
+        var firstPage = savedBooks.then(bookRepository.findPage(filter, sort, null, 1).single());
+        var secondPage = firstPage.flatMapMany(lastBook -> bookRepository.deleteByIsbn(lastBook.isbn())
+                .thenMany(bookRepository.findPage(filter, sort, BookCursor.of(lastBook, property), 10)));
+
+        StepVerifier.create(secondPage.map(Book::isbn).collectList())
+                .assertNext(isbns -> assertThat(isbns).containsExactly(isbnPrefix + "2", isbnPrefix + "3"))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = "Kaimono Filter Press")
+    void findPageFilteredAndSortedByPriceDescending(String publisher) {
+        var savedBooks = bookRepository.saveAll(List.of(
+                Book.of("1234600001", "Title", "Author", publisher, 5.0),
+                Book.of("1234600002", "Title", "Author", publisher, 15.0),
+                Book.of("1234600003", "Title", "Author", publisher, 25.0)));
+
+        var filter = new BookFilter(10.0, null, publisher, null);
+        var sort = new BookSort(BookSort.Property.PRICE, Sort.Direction.DESC);
+
+        var firstPage = savedBooks.then(bookRepository.findPage(filter, sort, null, 1).single());
+        var secondPage = firstPage.flatMapMany(lastBook ->
+                bookRepository.findPage(filter, sort, BookCursor.of(lastBook, sort.property()), 1));
+
+        StepVerifier.create(secondPage)
+                .expectNextMatches(incomingBook -> incomingBook.price() == 15.0)
+                .verifyComplete();
+
+        StepVerifier.create(bookRepository.findFacets(new BookFilter(null, null, publisher, null), 10.0))
+                .expectNext(new BookFacets(
+                        List.of(new BookFacets.PublisherFacet(publisher, 3)),
+                        List.of(
+                                new BookFacets.PriceFacet(0.0, 10.0, 1),
+                                new BookFacets.PriceFacet(10.0, 20.0, 1),
+                                new BookFacets.PriceFacet(20.0, 30.0, 1))))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @CsvSource("1234567120, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void writesRecordChangesInOrder(@CsvToBook Book book) {
+        var repricedBook = Book.of(book.isbn(), book.title(), book.author(), book.publisher(), 7.90);
+
+        var changes = bookRepository.insertIfAbsent(book)
+                .then(bookRepository.upsert(book.isbn(), repricedBook))
+                .then(bookRepository.deleteByIsbn(book.isbn()))
+                .thenMany(bookChangeRepository.findReleasedAfter(0, 0, 1000))
+                .filter(change -> change.isbn().equals(book.isbn()));
+
+        StepVerifier.create(changes)
+                .expectNextMatches(change -> change.type() == BookChange.Type.CREATED && change.version() == 1)
+                .expectNextMatches(change -> change.type() == BookChange.Type.UPDATED && change.version() == 2)
+                .expectNextMatches(change -> change.type() == BookChange.Type.DELETED && change.version() == 2)
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @CsvSource("1234567139, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void deleteReleasedChangesOnlyPastRetention(@CsvToBook Book book) {
+        var changes = bookChangeRepository.findReleasedAfter(0, 0, 1000)
+                .filter(change -> change.isbn().equals(book.isbn()));
+
+        var keptChanges = bookRepository.insertIfAbsent(book)
+                .then(bookChangeRepository.deleteReleasedOlderThan(3600))
+                .thenMany(changes);
+
+        StepVerifier.create(keptChanges)
+                .expectNextMatches(change -> change.type() == BookChange.Type.CREATED)
+                .verifyComplete();
+
+        StepVerifier.create(bookChangeRepository.deleteReleasedOlderThan(0).thenMany(changes))
+                .verifyComplete();
+    }
+
     @DynamicPropertySource
     private static void postgresqlProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.r2dbc.username", postgresql::getUsername);
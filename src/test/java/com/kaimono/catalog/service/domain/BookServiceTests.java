@@ -1,16 +1,34 @@
 package com.kaimono.catalog.service.domain;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaimono.catalog.service.cache.BookCache;
+import com.kaimono.catalog.service.cache.BookJsonCache;
+import com.kaimono.catalog.service.config.KaimonoCacheProperties;
+import com.kaimono.catalog.service.config.KaimonoPageProperties;
+import com.kaimono.catalog.service.routing.DatabaseRoute;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import junit.aggregator.book.CsvToBook;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -19,21 +37,31 @@ public class BookServiceTests {
     @Mock
     private BookRepository bookRepository;
 
-    @InjectMocks
     private BookService bookService;
 
+    @BeforeEach
+    void setUp() {
+        var cacheProperties = new KaimonoCacheProperties(100L, Duration.ofMinutes(1), Duration.ofSeconds(1));
+        var meterRegistry = new SimpleMeterRegistry();
+        var bookCache = new BookCache(cacheProperties,
+                new BookJsonCache(cacheProperties, new ObjectMapper(), meterRegistry), meterRegistry);
+
+        bookService = new BookService(bookRepository, bookCache, new KaimonoPageProperties(20, 100, 250),
+                Optional.empty(), meterRegistry);
+    }
+
     @ParameterizedTest
-    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
     void whenBookToCreateAlreadyExistsThenThrows(@CsvToBook Book book) {
-        when(bookRepository.findByIsbn(book.isbn()))
-                .thenReturn(Mono.error(new BookAlreadyExistsException(book.isbn())));
+        when(bookRepository.insertIfAbsent(book))
+                .thenReturn(Mono.empty());
 
         StepVerifier.create(bookService.addBookToCatalog(book))
                 .verifyErrorMessage("A book with ISBN " + book.isbn() + " already exists.");
     }
 
     @ParameterizedTest
-    @ValueSource(strings = "1234561232")
+    @ValueSource(strings = "1234561239")
     void whenBookToReadDoesNotExistThenThrows(String isbn) {
         when(bookRepository.findByIsbn(isbn))
                 .thenReturn(Mono.error(new BookNotFoundException(isbn)));
@@ -42,4 +70,159 @@ public class BookServiceTests {
                 .verifyErrorMessage("The book with ISBN " + isbn + " was not found.");
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = { "123456789", "97803064061", "978-0-306-40615-X", "12345678Y0" })
+    void whenIsbnToReadIsMalformedThenThrowsWithoutQuerying(String isbn) {
+        StepVerifier.create(bookService.viewBookDetails(isbn))
+                .verifyErrorMessage("The ISBN " + isbn + " is not valid.");
+
+        verify(bookRepository, never()).findByIsbn(any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "1234567890", "978-0-306-40615-8" })
+    void whenIsbnToReadHasWrongCheckDigitThenStillQueried(String isbn) {
+        var normalizedIsbn = Isbns.normalize(isbn);
+        when(bookRepository.findByIsbn(normalizedIsbn))
+                .thenReturn(Mono.empty());
+
+        StepVerifier.create(bookService.viewBookDetails(isbn))
+                .verifyErrorMessage("The book with ISBN " + normalizedIsbn + " was not found.");
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void whenBookToReadIsNotCachedThenLoadedFromPrimary(@CsvToBook Book book) {
+        when(bookRepository.findByIsbn(book.isbn()))
+                .thenReturn(Mono.deferContextual(context -> DatabaseRoute.isPinnedToPrimary(context)
+                        ? Mono.just(book)
+                        : Mono.empty()));
+
+        StepVerifier.create(bookService.viewBookDetails(book.isbn()).contextWrite(DatabaseRoute::readOnly))
+                .expectNext(book)
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = "978-0-306-40615-7")
+    void whenIsbnToReadIsHyphenatedThenNormalizedBeforeQuerying(String isbn) {
+        when(bookRepository.findByIsbn("9780306406157"))
+                .thenReturn(Mono.empty());
+
+        StepVerifier.create(bookService.viewBookDetails(isbn))
+                .verifyErrorMessage("The book with ISBN 9780306406157 was not found.");
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void whenBookToEditHasStaleVersionThenThrows(@CsvToBook Book book) {
+        var staleBook = new Book(1L, book.isbn(), book.title(), book.author(), book.publisher(), book.price(),
+                null, null, 3, null, null);
+
+        when(bookRepository.upsert(book.isbn(), staleBook))
+                .thenReturn(Mono.empty());
+        when(bookRepository.findByIsbn(book.isbn()))
+                .thenReturn(Mono.just(book));
+
+        StepVerifier.create(bookService.editBookDetails(book.isbn(), staleBook))
+                .verifyErrorMessage("The book with ISBN " + book.isbn() + " is no longer at version 3.");
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void whenBookToEditWasDeletedThenThrowsNotFound(@CsvToBook Book book) {
+        var readBook = new Book(1L, book.isbn(), book.title(), book.author(), book.publisher(), book.price(),
+                null, null, 3, null, null);
+
+        when(bookRepository.upsert(book.isbn(), readBook))
+                .thenReturn(Mono.empty());
+        when(bookRepository.findByIsbn(book.isbn()))
+                .thenReturn(Mono.empty());
+
+        StepVerifier.create(bookService.editBookDetails(book.isbn(), readBook))
+                .verifyErrorMessage("The book with ISBN " + book.isbn() + " was not found.");
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void whenLookingUpManyBooksThenFoundAndMissingReturned(@CsvToBook Book book) {
+        var missingIsbn = "1234561239";
+
+        when(bookRepository.findAllByIsbn(any()))
+                .thenReturn(Flux.just(book));
+
+        StepVerifier.create(bookService.viewBookDetails(List.of(missingIsbn, book.isbn(), book.isbn())))
+                .expectNext(new BookLookup(List.of(book), List.of(missingIsbn)))
+                .verifyComplete();
+
+        StepVerifier.create(bookService.viewBookDetails(book.isbn()))
+                .expectNext(book)
+                .verifyComplete();
+
+        verify(bookRepository, never()).findByIsbn(book.isbn());
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = { 0.0, -5.0, 0.001, Double.NaN, Double.POSITIVE_INFINITY })
+    void whenPriceBucketWidthInvalidThenThrowsWithoutQuerying(double priceBucketWidth) {
+        StepVerifier.create(bookService.viewBookFacets(BookFilter.NONE, priceBucketWidth))
+                .verifyError(InvalidPriceBucketWidthException.class);
+
+        verify(bookRepository, never()).findFacets(any(), anyDouble());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "'thus spo', 'thus:* & spo:*'",
+            "'  Nietzsche, F.', 'Nietzsche:* & F:*'",
+            "'zarathustra''s', 'zarathustra:* & s:*'"
+    })
+    void whenSearchingByPrefixThenEveryWordMatchedAsPrefix(String query, String prefixQuery) {
+        assertThat(BookService.prefixQueryOf(query)).isEqualTo(prefixQuery);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "Nietz, Nietz%",
+            "100%_off, 100\\%\\_off%"
+    })
+    void whenSearchingByAuthorPrefixThenWildcardsEscaped(String query, String authorPattern) {
+        assertThat(BookService.likePrefixOf(query)).isEqualTo(authorPattern);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "  ", "--" })
+    void whenPrefixQueryHasNoWordsThenNoSearch(String query) {
+        StepVerifier.create(bookService.searchBooks(query, BookSearchMode.PREFIX, null, null))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 101, 1000, Integer.MAX_VALUE })
+    void whenPageLimitAboveMaximumThenClamped(int limit) {
+        when(bookRepository.findPage(BookFilter.NONE, BookSort.DEFAULT, null, 101))
+                .thenReturn(Flux.empty());
+
+        StepVerifier.create(bookService.viewBookPage(BookFilter.NONE, BookSort.DEFAULT, null, limit))
+                .expectNext(new BookPage(List.of(), null))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void whenMoreBooksThanLimitThenNextCursorReturned(@CsvToBook Book book) {
+        var books = LongStream.rangeClosed(1, 3)
+                .mapToObj(id -> new Book(id, book.isbn(), book.title(), book.author(), book.publisher(), book.price(),
+                        null, null, 0, null, null))
+                .toList();
+
+        var after = new BookCursor(BookSort.Property.ID, null, 0L);
+        when(bookRepository.findPage(BookFilter.NONE, BookSort.DEFAULT, after, 3))
+                .thenReturn(Flux.fromIterable(books));
+
+        StepVerifier.create(bookService.viewBookPage(BookFilter.NONE, BookSort.DEFAULT, after, 2))
+                .expectNext(new BookPage(books.subList(0, 2), new BookCursor(BookSort.Property.ID, null, 2L)))
+                .verifyComplete();
+    }
+
 }
@@ -15,7 +15,7 @@ public class BookValidationTests {
             Validation.buildDefaultValidatorFactory().getValidator();
 
     @ParameterizedTest
-    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
     public void whenAllFieldsCorrectThenValidationSucceeds(@CsvToBook Book book) {
         var violations = validator.validate(book);
         assertThat(violations).isEmpty();
@@ -47,7 +47,30 @@ public class BookValidationTests {
     }
 
     @ParameterizedTest
-    @CsvSource("1234567890, '', Friedrich Nietzsche, Adelphi, 9.90")
+    @CsvSource({
+            "1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90",
+            "9780306406158, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90"
+    })
+    void whenIsbnCheckDigitIncorrectThenValidationFails(@CsvToBook Book book) {
+        var violations = validator.validate(book);
+        assertThat(violations).hasSize(1);
+
+        assertThat(violations.iterator().next().getMessage())
+                .isEqualTo("The ISBN format must be valid.");
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "978-0-306-40615-7, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90",
+            "123456789x, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90"
+    })
+    void whenIsbnHyphenatedOrLowerCaseThenNormalizedAndValidationSucceeds(@CsvToBook Book book) {
+        assertThat(book.isbn()).matches("[0-9]{9}[0-9X]|[0-9]{13}");
+        assertThat(validator.validate(book)).isEmpty();
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, '', Friedrich Nietzsche, Adelphi, 9.90")
     void whenTitleIsNotDefinedThenValidationFails(@CsvToBook Book book) {
         var violations = validator.validate(book);
         assertThat(violations).hasSize(1);
@@ -57,7 +80,7 @@ public class BookValidationTests {
     }
 
     @ParameterizedTest
-    @CsvSource(value = "1234567890, Thus Spoke Zarathustra, N/A, Adelphi, 9.90", nullValues = "N/A")
+    @CsvSource(value = "123456789X, Thus Spoke Zarathustra, N/A, Adelphi, 9.90", nullValues = "N/A")
     void whenAuthorIsNotDefinedThenValidationFails(@CsvToBook Book book) {
         var violations = validator.validate(book);
         assertThat(violations).hasSize(1);
@@ -67,7 +90,7 @@ public class BookValidationTests {
     }
 
     @ParameterizedTest
-    @CsvSource(value = "1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, N/A", nullValues = "N/A")
+    @CsvSource(value = "123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, N/A", nullValues = "N/A")
     void whenPriceIsNotDefinedThenValidationFails(@CsvToBook Book book) {
         var violations = validator.validate(book);
         assertThat(violations).hasSize(1);
@@ -77,7 +100,7 @@ public class BookValidationTests {
     }
 
     @ParameterizedTest
-    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 0.0")
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 0.0")
     void whenPriceDefinedButZeroThenValidationFails(@CsvToBook Book book) {
         var violations = validator.validate(book);
         assertThat(violations).hasSize(1);
@@ -87,7 +110,7 @@ public class BookValidationTests {
     }
 
     @ParameterizedTest
-    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, -9.90")
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, -9.90")
     void whenPriceDefinedButNegativeThenValidationFails(@CsvToBook Book book) {
         var violations = validator.validate(book);
         assertThat(violations).hasSize(1);
@@ -0,0 +1,215 @@
+package com.kaimono.catalog.service.domain;
+
+import com.kaimono.catalog.service.config.DataConfig;
+import com.kaimono.catalog.service.config.KaimonoJdbcProperties;
+import com.kaimono.catalog.service.jdbc.JdbcExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import junit.aggregator.book.CsvToBook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.ReactiveAuditorAware;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.util.function.Tuples;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataR2dbcTest
+@Testcontainers
+@Import(DataConfig.class)
+public class JdbcBookRepositoryTests {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookChangeRepository bookChangeRepository;
+
+    @Autowired
+    private ReactiveAuditorAware<String> auditorAware;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresql =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:14.4"));
+
+    private JdbcExecutor jdbcExecutor;
+    private JdbcBookRepository jdbcBookRepository;
+
+    @BeforeEach
+    void setUp() {
+        var jdbcProperties = new KaimonoJdbcProperties(postgresql.getJdbcUrl(), postgresql.getUsername(),
+                postgresql.getPassword(), 4, Duration.ofSeconds(2), 1, 256, true);
+
+        jdbcExecutor = new JdbcExecutor(jdbcProperties, new SimpleMeterRegistry());
+        jdbcBookRepository = new JdbcBookRepository(jdbcExecutor, auditorAware);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcExecutor.close();
+    }
+
+    @ParameterizedTest
+    @WithMockUser("mock-user")
+    @CsvSource("9780306406157, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void insertBookWhenNotExistingThenAuditMetadataAndReadableByIsbn(@CsvToBook Book book) {
+        var insertedTwice = jdbcBookRepository.insertIfAbsent(book)
+                .then(jdbcBookRepository.insertIfAbsent(book));
+
+        StepVerifier.create(insertedTwice).verifyComplete();
+
+        StepVerifier.create(jdbcBookRepository.findByIsbn(book.isbn()))
+                .assertNext(incomingBook -> {
+                    assertThat(incomingBook.id()).isNotNull();
+                    assertThat(incomingBook.version()).isEqualTo(1);
+                    assertThat(incomingBook.createdDate()).isNotNull();
+                    assertThat(incomingBook.createdBy()).isEqualTo("mock-user");
+                    assertThat(incomingBook.lastModifiedBy()).isEqualTo("mock-user");
+                })
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @CsvSource("9780306406164, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void upsertBookWhenVersionStaleThenEmpty(@CsvToBook Book book) {
+        var repricedBook = Book.of(book.isbn(), book.title(), book.author(), book.publisher(), 7.90);
+
+        var upsertedBook = jdbcBookRepository.upsert(book.isbn(), book)
+                .then(jdbcBookRepository.upsert(book.isbn(), repricedBook));
+
+        StepVerifier.create(upsertedBook)
+                .assertNext(incomingBook -> {
+                    assertThat(incomingBook.price()).isEqualTo(7.90);
+                    assertThat(incomingBook.version()).isEqualTo(2);
+                })
+                .verifyComplete();
+
+        var staleBook = new Book(null, book.isbn(), book.title(), book.author(), book.publisher(), 5.90,
+                null, null, 1, null, null);
+
+        StepVerifier.create(jdbcBookRepository.upsert(book.isbn(), staleBook)).verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = "Kaimono JDBC Press")
+    void findPageAndFacetsMatchR2dbcRepository(String publisher) {
+        var savedBooks = bookRepository.saveAll(List.of(
+                Book.of("123470000X", "Title", "Author", publisher, 5.0),
+                Book.of("1234700018", "Title", "Author", publisher, 15.0),
+                Book.of("1234700026", "Title", "Author", publisher, 25.0)));
+
+        var filter = new BookFilter(null, null, publisher, null);
+        var sort = new BookSort(BookSort.Property.PRICE, Sort.Direction.DESC);
+
+        var pages = savedBooks.then(Flux.zip(
+                        jdbcBookRepository.findPage(filter, sort, null, 2).map(Book::isbn).collectList(),
+                        bookRepository.findPage(filter, sort, null, 2).map(Book::isbn).collectList())
+                .single());
+
+        StepVerifier.create(pages)
+                .assertNext(page -> assertThat(page.getT1())
+                        .containsExactly("1234700026", "1234700018")
+                        .isEqualTo(page.getT2()))
+                .verifyComplete();
+
+        StepVerifier.create(jdbcBookRepository.findFacets(filter, 10.0))
+                .expectNext(new BookFacets(
+                        List.of(new BookFacets.PublisherFacet(publisher, 3)),
+                        List.of(
+                                new BookFacets.PriceFacet(0.0, 10.0, 1),
+                                new BookFacets.PriceFacet(10.0, 20.0, 1),
+                                new BookFacets.PriceFacet(20.0, 30.0, 1))))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = "Kaimono JDBC Lookup Press")
+    void findAllByIsbnBindsArrayAndMatchesR2dbcRepository(String publisher) {
+        var savedBooks = bookRepository.saveAll(List.of(
+                Book.of("1234900001", "Title", "Author", publisher, 5.0),
+                Book.of("1234900002", "Title", "Author", publisher, 15.0)));
+
+        var isbns = new String[] { "1234900001", "1234900002", "1234900003" };
+        var lookups = savedBooks.then(Flux.zip(
+                        jdbcBookRepository.findAllByIsbn(isbns).map(Book::isbn).collectList(),
+                        bookRepository.findAllByIsbn(isbns).map(Book::isbn).collectList())
+                .single());
+
+        StepVerifier.create(lookups)
+                .assertNext(found -> assertThat(found.getT1())
+                        .containsExactlyInAnyOrder("1234900001", "1234900002")
+                        .containsExactlyInAnyOrderElementsOf(found.getT2()))
+                .verifyComplete();
+
+        StepVerifier.create(jdbcBookRepository.findAllByIsbn(new String[0])).verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = 2)
+    void streamAllThroughCursorInIdOrder(int fetchSize) {
+        var savedBooks = bookRepository.saveAll(List.of(
+                        Book.of("1234800004", "Title", "Author", "Publisher", 5.0),
+                        Book.of("1234800012", "Title", "Author", "Publisher", 5.0),
+                        Book.of("1234800020", "Title", "Author", "Publisher", 5.0)))
+                .map(Book::id)
+                .collectList();
+
+        var streamedIds = savedBooks.flatMap(ids -> jdbcBookRepository.streamAll(ids.get(0) - 1, fetchSize)
+                .map(Book::id)
+                .collectList()
+                .map(streamed -> Tuples.of(ids, streamed)));
+
+        StepVerifier.create(streamedIds)
+                .assertNext(ids -> assertThat(ids.getT2())
+                        .isSorted()
+                        .containsAll(ids.getT1()))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @CsvSource("9780306406171, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void deleteByIsbnRecordsChange(@CsvToBook Book book) {
+        var changes = jdbcBookRepository.insertIfAbsent(book)
+                .then(jdbcBookRepository.deleteByIsbn(book.isbn()))
+                .thenMany(bookChangeRepository.findReleasedAfter(0, 0, 1000))
+                .filter(change -> change.isbn().equals(book.isbn()));
+
+        StepVerifier.create(changes)
+                .expectNextMatches(change -> change.type() == BookChange.Type.CREATED)
+                .expectNextMatches(change -> change.type() == BookChange.Type.DELETED)
+                .verifyComplete();
+
+        StepVerifier.create(jdbcBookRepository.findByIsbn(book.isbn())).verifyComplete();
+    }
+
+    @DynamicPropertySource
+    private static void postgresqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.username", postgresql::getUsername);
+        registry.add("spring.r2dbc.password", postgresql::getPassword);
+        registry.add("spring.flyway.url", postgresql::getJdbcUrl);
+        registry.add("spring.r2dbc.url", () ->
+                String.format("r2dbc:postgresql://%s:%s/%s",
+                        postgresql.getHost(),
+                        postgresql.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT),
+                        postgresql.getDatabaseName())
+        );
+    }
+
+}
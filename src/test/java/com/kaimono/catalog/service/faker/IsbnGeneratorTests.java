@@ -0,0 +1,71 @@
+package com.kaimono.catalog.service.faker;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashSet;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class IsbnGeneratorTests {
+
+    @ParameterizedTest
+    @ValueSource(longs = { 0, 42, -7 })
+    void whenPermutingRangeThenNoCollisions(long seed) {
+        var isbnGenerator = new IsbnGenerator(seed);
+        var seen = new HashSet<Long>();
+
+        for (long index = 0; index < 200_000; index++) {
+            var value = isbnGenerator.permute(index);
+            assertThat(value).isBetween(0L, IsbnGenerator.CAPACITY - 1);
+            assertThat(seen.add(value)).isTrue();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = 42)
+    void whenGeneratingThenCheckDigitsValid(long seed) {
+        var isbnGenerator = new IsbnGenerator(seed);
+
+        LongStream.of(0, 1, 2, 999, 123_456_789, IsbnGenerator.CAPACITY - 1).forEach(index -> {
+            var isbn13 = isbnGenerator.isbn13(index);
+            var isbn10 = isbnGenerator.isbn10(index);
+
+            assertThat(isbn13).matches("978[0-9]{10}");
+            assertThat(isbn10).matches("[0-9]{9}[0-9X]");
+            assertThat(isbn13.substring(3, 12)).isEqualTo(isbn10.substring(0, 9));
+            assertThat(isbn13Sum(isbn13) % 10).isZero();
+            assertThat(isbn10Sum(isbn10) % 11).isZero();
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = 42)
+    void whenSameSeedThenSameIsbns(long seed) {
+        assertThat(new IsbnGenerator(seed).isbn13(1234)).isEqualTo(new IsbnGenerator(seed).isbn13(1234));
+        assertThat(new IsbnGenerator(seed).isbn13(1234)).isNotEqualTo(new IsbnGenerator(seed + 1).isbn13(1234));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = { -1, IsbnGenerator.CAPACITY })
+    void whenIndexOutOfRangeThenThrows(long index) {
+        assertThatIllegalArgumentException().isThrownBy(() -> new IsbnGenerator(42).permute(index));
+    }
+
+    private static int isbn13Sum(String isbn) {
+        var sum = 0;
+        for (int i = 0; i < 13; i++)
+            sum += (isbn.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        return sum;
+    }
+
+    private static int isbn10Sum(String isbn) {
+        var sum = 0;
+        for (int i = 0; i < 10; i++)
+            sum += (isbn.charAt(i) == 'X' ? 10 : isbn.charAt(i) - '0') * (10 - i);
+        return sum;
+    }
+
+}
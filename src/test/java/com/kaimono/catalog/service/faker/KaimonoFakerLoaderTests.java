@@ -0,0 +1,87 @@
+package com.kaimono.catalog.service.faker;
+
+import com.kaimono.catalog.service.config.KaimonoFakerDataProperties;
+import com.kaimono.catalog.service.domain.Book;
+import com.kaimono.catalog.service.domain.BookRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class KaimonoFakerLoaderTests {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    private final List<Book> insertedBooks = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.insertAllIfAbsent(any())).thenAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            insertedBooks.addAll(books);
+            return Flux.fromIterable(books);
+        });
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "1000, 64, 4", "10, 3, 8", "7, 10, 1" })
+    void whenLoadingThenEveryBookInsertedOnceInBatches(long count, int batchSize, int parallelism) {
+        var meterRegistry = new SimpleMeterRegistry();
+        var loader = loaderOf(count, batchSize, parallelism, meterRegistry);
+
+        StepVerifier.create(loader.loadFakeBooks())
+                .expectNext(count)
+                .verifyComplete();
+
+        assertThat(insertedBooks)
+                .hasSize((int) count)
+                .extracting(Book::isbn)
+                .doesNotHaveDuplicates()
+                .allMatch(isbn -> isbn.matches("[0-9]{13}"));
+        assertThat(meterRegistry.get("kaimono.faker.books").tag("outcome", "inserted").counter().count())
+                .isEqualTo(count);
+    }
+
+    @ParameterizedTest
+    @CsvSource("100, 16, 3")
+    void whenLoadingTwiceWithSameSeedThenSameBooks(long count, int batchSize, int parallelism) {
+        StepVerifier.create(loaderOf(count, batchSize, parallelism, new SimpleMeterRegistry()).loadFakeBooks())
+                .expectNext(count)
+                .verifyComplete();
+        var firstRun = sortedByIsbn(insertedBooks);
+        insertedBooks.clear();
+
+        StepVerifier.create(loaderOf(count, batchSize, parallelism, new SimpleMeterRegistry()).loadFakeBooks())
+                .expectNext(count)
+                .verifyComplete();
+
+        assertThat(sortedByIsbn(insertedBooks)).isEqualTo(firstRun);
+    }
+
+    private KaimonoFakerLoader loaderOf(long count, int batchSize, int parallelism, SimpleMeterRegistry meterRegistry) {
+        return new KaimonoFakerLoader(
+                new KaimonoFakerDataProperties(5, 50, count, 0, batchSize, parallelism, 42L),
+                bookRepository, meterRegistry);
+    }
+
+    private static List<Book> sortedByIsbn(List<Book> books) {
+        return books.stream().sorted(Comparator.comparing(Book::isbn)).toList();
+    }
+
+}
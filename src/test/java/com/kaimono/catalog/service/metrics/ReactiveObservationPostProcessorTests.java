@@ -0,0 +1,68 @@
+package com.kaimono.catalog.service.metrics;
+
+import com.kaimono.catalog.service.domain.Book;
+import com.kaimono.catalog.service.domain.BookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import junit.aggregator.book.CsvToBook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class ReactiveObservationPostProcessorTests {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+    private ReactiveObservationPostProcessor postProcessor;
+
+    @BeforeEach
+    void setUp() {
+        observationRegistry.observationConfig()
+                .observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+
+        var beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("observationRegistry", observationRegistry);
+        postProcessor = new ReactiveObservationPostProcessor(beanFactory.getBeanProvider(ObservationRegistry.class));
+    }
+
+    @ParameterizedTest
+    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void whenRepositoryQueryCompletesThenObservedPerMethod(@CsvToBook Book book) {
+        var bookRepository = mock(BookRepository.class);
+        given(bookRepository.findByIsbn(book.isbn())).willReturn(Mono.just(book));
+
+        var timedRepository = (BookRepository) postProcessor.postProcessAfterInitialization(bookRepository, "bookRepository");
+
+        assertThat(meterRegistry.find(ReactiveObservationPostProcessor.REPOSITORY_OBSERVATION).timers())
+                .isEmpty();
+
+        StepVerifier.create(timedRepository.findByIsbn(book.isbn()))
+                .expectNext(book)
+                .verifyComplete();
+
+        var timer = meterRegistry.find(ReactiveObservationPostProcessor.REPOSITORY_OBSERVATION)
+                .tag("method", "findByIsbn")
+                .timer();
+
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    void whenBeanNotInstrumentedThenReturnedAsIs(@CsvToBook Book book) {
+        assertThat(postProcessor.postProcessAfterInitialization(book, "book")).isSameAs(book);
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.kaimono.catalog.service.snapshot;
+
+import com.kaimono.catalog.service.domain.Book;
+import com.kaimono.catalog.service.domain.BookCursor;
+import com.kaimono.catalog.service.domain.BookFilter;
+import com.kaimono.catalog.service.domain.BookSort;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookColumnsTests {
+
+    private static final Instant CREATED_DATE = Instant.parse("2023-03-01T10:15:30.123456Z");
+
+    private static final List<Book> BOOKS = List.of(
+            bookOf(1, "9780000000002", "Zarathustra", "Friedrich Nietzsche", "Adelphi", 25.0),
+            bookOf(2, "9780000000019", "Beyond Good and Evil", "Friedrich Nietzsche", "Penguin", 15.0),
+            bookOf(3, "9780000000026", "The Gay Science", "Friedrich Nietzsche", "Adelphi", 15.0),
+            bookOf(4, "9780000000033", "Meditations", "Marcus Aurelius", "Penguin", 5.0));
+
+    @ParameterizedTest
+    @ValueSource(ints = 2)
+    void whenPagingByIdThenRowsRebuiltAsStored(int limit) {
+        var columns = columnsOf(BOOKS);
+
+        assertThat(columns.findPage(BookFilter.NONE, BookSort.DEFAULT, null, limit))
+                .containsExactly(BOOKS.get(0), BOOKS.get(1));
+        assertThat(columns.findPage(BookFilter.NONE, BookSort.DEFAULT, BookCursor.of(BOOKS.get(1), BookSort.Property.ID), limit))
+                .containsExactly(BOOKS.get(2), BOOKS.get(3));
+        assertThat(columns.findPage(BookFilter.NONE, new BookSort(BookSort.Property.ID, Sort.Direction.DESC),
+                BookCursor.of(BOOKS.get(2), BookSort.Property.ID), limit))
+                .containsExactly(BOOKS.get(1), BOOKS.get(0));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "ASC, , '4,2,3'", "ASC, 15.0:2, '3,1'", "DESC, , '1,3,2'", "DESC, 15.0:3, '2,4'" })
+    void whenSortedByPriceThenTiesBrokenById(Sort.Direction direction, String after, String expectedIds) {
+        var columns = columnsOf(BOOKS);
+        var cursor = after == null ? null : BookCursor.parse(after, BookSort.Property.PRICE);
+
+        var page = columns.findPage(BookFilter.NONE, new BookSort(BookSort.Property.PRICE, direction), cursor, 3);
+
+        assertThat(page).extracting(book -> String.valueOf(book.id()))
+                .containsExactly(expectedIds.split(","));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "10.0, , Adelphi, , '1,3'", ", 20.0, , Friedrich Nietzsche, '2,3'", ", , Unknown, , ''" })
+    void whenFilteredThenOnlyMatchingRows(Double minPrice, Double maxPrice, String publisher, String author,
+                                          String expectedIds) {
+        var columns = columnsOf(BOOKS);
+
+        var page = columns.findPage(new BookFilter(minPrice, maxPrice, publisher, author), BookSort.DEFAULT, null, 10);
+
+        assertThat(page).extracting(book -> String.valueOf(book.id()))
+                .containsExactly(expectedIds.isEmpty() ? new String[0] : expectedIds.split(","));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = "Penguin Classics")
+    void whenChangesAppliedThenUpdatedDeletedAndInsertedRowsReflected(String publisher) {
+        var columns = columnsOf(BOOKS);
+        var updated = bookOf(2, BOOKS.get(1).isbn(), "Beyond Good and Evil", "Friedrich Nietzsche", publisher, 35.0);
+        var inserted = bookOf(7, "9780000000040", "Ecce Homo", "Friedrich Nietzsche", publisher, 1.0);
+
+        var applied = columns.apply(
+                Set.of(updated.isbn(), BOOKS.get(2).isbn(), inserted.isbn()),
+                List.of(inserted, updated));
+
+        assertThat(applied.findPage(BookFilter.NONE, BookSort.DEFAULT, null, 10))
+                .containsExactly(BOOKS.get(0), updated, BOOKS.get(3), inserted);
+        assertThat(applied.findPage(BookFilter.NONE, new BookSort(BookSort.Property.PRICE, Sort.Direction.ASC), null, 10))
+                .containsExactly(inserted, BOOKS.get(3), BOOKS.get(0), updated);
+        assertThat(applied.findPage(new BookFilter(null, null, publisher, null), BookSort.DEFAULT, null, 10))
+                .containsExactly(updated, inserted);
+
+        assertThat(columns.findPage(BookFilter.NONE, BookSort.DEFAULT, null, 10)).isEqualTo(BOOKS);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = 2)
+    void whenCursorRowDeletedThenSortedPageResumesAfterIt(int deleted) {
+        var columns = columnsOf(BOOKS).apply(Set.of(BOOKS.get(deleted).isbn()), List.of());
+        var titleCursor = BookCursor.of(BOOKS.get(deleted), BookSort.Property.TITLE);
+
+        assertThat(columns.findPage(BookFilter.NONE, new BookSort(BookSort.Property.TITLE, Sort.Direction.ASC),
+                titleCursor, 10))
+                .containsExactly(BOOKS.get(0));
+        assertThat(columns.findPage(BookFilter.NONE, new BookSort(BookSort.Property.TITLE, Sort.Direction.DESC),
+                titleCursor, 10))
+                .containsExactly(BOOKS.get(3), BOOKS.get(1));
+        assertThat(columns.findPage(BookFilter.NONE, BookSort.DEFAULT,
+                BookCursor.of(BOOKS.get(deleted), BookSort.Property.ID), 10))
+                .containsExactly(BOOKS.get(3));
+    }
+
+    private static BookColumns columnsOf(List<Book> books) {
+        var builder = BookColumns.builder();
+        books.forEach(builder::add);
+        return builder.build();
+    }
+
+    private static Book bookOf(long id, String isbn, String title, String author, String publisher, double price) {
+        return new Book(id, isbn, title, author, publisher, price, CREATED_DATE, CREATED_DATE.plusSeconds(id), 1,
+                "employee", null);
+    }
+
+}
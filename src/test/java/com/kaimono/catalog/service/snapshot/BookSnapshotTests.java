@@ -0,0 +1,189 @@
+package com.kaimono.catalog.service.snapshot;
+
+import com.kaimono.catalog.service.config.DataConfig;
+import com.kaimono.catalog.service.config.KaimonoSnapshotProperties;
+import com.kaimono.catalog.service.domain.Book;
+import com.kaimono.catalog.service.domain.BookChange;
+import com.kaimono.catalog.service.domain.BookChangeRepository;
+import com.kaimono.catalog.service.domain.BookFilter;
+import com.kaimono.catalog.service.domain.BookRepository;
+import com.kaimono.catalog.service.domain.BookSort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataR2dbcTest
+@Testcontainers
+@Import(DataConfig.class)
+public class BookSnapshotTests {
+
+    private static final int MAX_INCREMENTAL_CHANGES = 3;
+    private static final Duration LOADED_WITHIN = Duration.ofSeconds(15);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookChangeRepository bookChangeRepository;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgresql =
+            new PostgreSQLContainer<>(DockerImageName.parse("postgres:14.4"));
+
+    private BookRepository snapshotBooks;
+    private BookChangeRepository snapshotChanges;
+    private BookSnapshot bookSnapshot;
+    private Disposable refreshes;
+
+    @BeforeEach
+    void setUp() {
+        snapshotBooks = mock(BookRepository.class, delegatesTo(bookRepository));
+        snapshotChanges = mock(BookChangeRepository.class, delegatesTo(bookChangeRepository));
+        bookSnapshot = new BookSnapshot(snapshotBooks, snapshotChanges,
+                new KaimonoSnapshotProperties(Duration.ofMillis(100), 2, 2, MAX_INCREMENTAL_CHANGES),
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (refreshes != null)
+            refreshes.dispose();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = "Kaimono Snapshot Load Press")
+    void whenStartedThenWholeCatalogLoaded(String publisher) {
+        var savedBooks = bookRepository.saveAll(List.of(
+                Book.of("1235000001", "Title", "Author", publisher, 5.0),
+                Book.of("1235000002", "Title", "Author", publisher, 15.0),
+                Book.of("1235000003", "Title", "Author", publisher, 25.0)));
+
+        StepVerifier.create(savedBooks.then()).verifyComplete();
+        refreshes = bookSnapshot.refreshes().subscribe();
+
+        StepVerifier.create(pageOnceLoaded(publisher, books -> books.size() == 3))
+                .assertNext(books -> assertThat(books).extracting(Book::isbn)
+                        .containsExactly("1235000001", "1235000002", "1235000003"))
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = "Kaimono Snapshot Outbox Press")
+    void whenBooksChangeThenOutboxFollowedWithoutReload(String publisher) {
+        var insertedBooks = bookRepository.insertAllIfAbsent(List.of(
+                Book.of("1235000101", "Title", "Author", publisher, 5.0),
+                Book.of("1235000102", "Title", "Author", publisher, 15.0)));
+
+        StepVerifier.create(insertedBooks.then()).verifyComplete();
+        refreshes = bookSnapshot.refreshes().subscribe();
+        StepVerifier.create(pageOnceLoaded(publisher, books -> books.size() == 2)).expectNextCount(1).verifyComplete();
+
+        var changedBooks = bookRepository.upsert("1235000101", Book.of("1235000101", "Title", "Author", publisher, 7.5))
+                .then(bookRepository.deleteByIsbn("1235000102"));
+
+        StepVerifier.create(changedBooks).verifyComplete();
+
+        StepVerifier.create(pageOnceLoaded(publisher, books -> books.size() == 1 && books.get(0).price() == 7.5))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(snapshotBooks, times(1)).streamAll(anyLong(), anyInt());
+        verify(snapshotBooks, timeout(LOADED_WITHIN.toMillis()).atLeastOnce()).findAllByIsbn(any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = "Kaimono Snapshot Reload Press")
+    void whenTooManyBooksChangeThenWholeCatalogReloaded(String publisher) {
+        refreshes = bookSnapshot.refreshes().subscribe();
+        StepVerifier.create(pageOnceLoaded(publisher, List::isEmpty)).expectNextCount(1).verifyComplete();
+
+        var insertedBooks = bookRepository.insertAllIfAbsent(IntStream.rangeClosed(1, MAX_INCREMENTAL_CHANGES + 2)
+                .mapToObj(n -> Book.of("123500020" + n, "Title", "Author", publisher, 5.0 * n))
+                .toList());
+
+        StepVerifier.create(insertedBooks.then()).verifyComplete();
+
+        StepVerifier.create(pageOnceLoaded(publisher, books -> books.size() == MAX_INCREMENTAL_CHANGES + 2))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(snapshotBooks, times(2)).streamAll(anyLong(), anyInt());
+        verify(snapshotBooks, never()).findAllByIsbn(any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = "Kaimono Snapshot Retry Press")
+    void whenOutboxReadFailsThenSnapshotDroppedAndReloaded(String publisher) {
+        when(snapshotChanges.findReleasedAfter(anyLong(), anyLong(), anyInt()))
+                .thenReturn(Flux.<BookChange>error(new IllegalStateException("The outbox is unavailable.")))
+                .thenAnswer(invocation -> bookChangeRepository.findReleasedAfter(
+                        invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+
+        var savedBook = bookRepository.save(Book.of("1235000301", "Title", "Author", publisher, 5.0));
+
+        StepVerifier.create(savedBook.then()).verifyComplete();
+        refreshes = bookSnapshot.refreshes().subscribe();
+
+        verify(snapshotBooks, timeout(LOADED_WITHIN.toMillis()).times(2)).streamAll(anyLong(), anyInt());
+
+        StepVerifier.create(pageOnceLoaded(publisher, books -> books.size() == 1))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    // polls the snapshot, as it is swapped in by the refresh loop in the background
+    private Mono<List<Book>> pageOnceLoaded(String publisher, Predicate<List<Book>> condition) {
+        return Mono.fromSupplier(() -> bookSnapshot.findPage(
+                        new BookFilter(null, null, publisher, null), BookSort.DEFAULT, null, 100))
+                .flatMap(Mono::justOrEmpty)
+                .filter(condition)
+                .repeatWhenEmpty(attempts -> attempts.delayElements(Duration.ofMillis(50)))
+                .timeout(LOADED_WITHIN);
+    }
+
+    @DynamicPropertySource
+    private static void postgresqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.r2dbc.username", postgresql::getUsername);
+        registry.add("spring.r2dbc.password", postgresql::getPassword);
+        registry.add("spring.flyway.url", postgresql::getJdbcUrl);
+        registry.add("spring.r2dbc.url", () ->
+                String.format("r2dbc:postgresql://%s:%s/%s",
+                        postgresql.getHost(),
+                        postgresql.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT),
+                        postgresql.getDatabaseName())
+        );
+    }
+
+}
@@ -1,24 +1,57 @@
 package com.kaimono.catalog.service.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kaimono.catalog.service.cache.BookJsonCache;
+import com.kaimono.catalog.service.config.KaimonoCacheProperties;
 import com.kaimono.catalog.service.config.SecurityConfig;
 import com.kaimono.catalog.service.domain.Book;
+import com.kaimono.catalog.service.domain.BookChange;
+import com.kaimono.catalog.service.domain.BookChangeOffset;
+import com.kaimono.catalog.service.domain.BookChangeRelay;
+import com.kaimono.catalog.service.domain.BookCursor;
+import com.kaimono.catalog.service.domain.BookFacets;
+import com.kaimono.catalog.service.domain.BookFilter;
+import com.kaimono.catalog.service.domain.BookImportResult;
+import com.kaimono.catalog.service.domain.BookImportService;
+import com.kaimono.catalog.service.domain.BookLookup;
 import com.kaimono.catalog.service.domain.BookNotFoundException;
+import com.kaimono.catalog.service.domain.BookPage;
+import com.kaimono.catalog.service.domain.BookSearchMode;
 import com.kaimono.catalog.service.domain.BookService;
+import com.kaimono.catalog.service.domain.BookSort;
+import com.kaimono.catalog.service.domain.BookVersionMismatchException;
+import com.kaimono.catalog.service.domain.InvalidIsbnException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import junit.aggregator.book.CsvToBook;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 
 @Import(SecurityConfig.class)
@@ -37,11 +70,230 @@ class BookControllerTests {
     @MockBean
     private BookService bookService;
 
+    @MockBean
+    private BookImportService bookImportService;
+
+    @MockBean
+    private BookChangeRelay bookChangeRelay;
+
     @MockBean
     private ReactiveJwtDecoder reactiveJwtDecoder;
 
+    @TestConfiguration
+    static class BookJsonCacheConfig {
+
+        @Bean
+        BookJsonCache bookJsonCache(ObjectMapper objectMapper) {
+            return new BookJsonCache(
+                    new KaimonoCacheProperties(100L, Duration.ofMinutes(1), Duration.ofMinutes(1)),
+                    objectMapper, new SimpleMeterRegistry());
+        }
+
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    public void whenGetBooksWithNextPageThenShouldReturnNextCursor(@CsvToBook Book book) {
+        given(bookService.viewBookPage(BookFilter.NONE, BookSort.DEFAULT, null, 1))
+                .willReturn(Mono.just(new BookPage(List.of(book), new BookCursor(BookSort.Property.ID, null, 42L))));
+
+        webClient
+                .get()
+                    .uri("/books?limit=1")
+                        .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                    .isOk()
+                .expectHeader()
+                    .valueEquals(BookController.NEXT_CURSOR_HEADER, "42")
+                .expectBodyList(Book.class)
+                    .value(books -> assertThat(books).containsExactly(book));
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    public void whenGetBooksOnLastPageThenShouldNotReturnNextCursor(@CsvToBook Book book) {
+        given(bookService.viewBookPage(BookFilter.NONE, BookSort.DEFAULT, new BookCursor(BookSort.Property.ID, null, 41L), null))
+                .willReturn(Mono.just(new BookPage(List.of(book), null)));
+
+        webClient
+                .get()
+                    .uri("/books?after=41")
+                        .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                    .isOk()
+                .expectHeader()
+                    .doesNotExist(BookController.NEXT_CURSOR_HEADER)
+                .expectBodyList(Book.class)
+                    .value(books -> assertThat(books).containsExactly(book));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "ID, abc", "PRICE, 41", "PRICE, cheap:41", "PRICE, NaN:41", "PRICE, Infinity:41",
+            "CREATED_DATE, 2023-03-01:41", "CREATED_DATE, -9223372036854775808:41" })
+    public void whenGetBooksWithInvalidCursorThenShouldReturn400(BookSort.Property sort, String after) {
+        webClient
+                .get()
+                    .uri("/books?sort={sort}&after={after}", sort, after)
+                        .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                    .isBadRequest();
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    public void whenGetBooksFilteredAndSortedThenShouldPassThemToService(@CsvToBook Book book) {
+        var filter = new BookFilter(5.0, 10.0, book.publisher(), null);
+        var sort = new BookSort(BookSort.Property.PRICE, Sort.Direction.DESC);
+        given(bookService.viewBookPage(filter, sort, null, null))
+                .willReturn(Mono.just(new BookPage(List.of(book), null)));
+
+        webClient
+                .get()
+                    .uri("/books?minPrice=5&maxPrice=10&publisher={publisher}&sort=PRICE&direction=DESC", book.publisher())
+                        .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                    .isOk()
+                .expectBodyList(Book.class)
+                    .value(books -> assertThat(books).containsExactly(book));
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    public void whenGetFacetsThenShouldReturnPublisherAndPriceCounts(@CsvToBook Book book) {
+        var facets = new BookFacets(
+                List.of(new BookFacets.PublisherFacet(book.publisher(), 1)),
+                List.of(new BookFacets.PriceFacet(5.0, 10.0, 1)));
+        given(bookService.viewBookFacets(new BookFilter(null, null, null, book.author()), 5.0))
+                .willReturn(Mono.just(facets));
+
+        webClient
+                .get()
+                    .uri("/books/facets?author={author}&priceBucketWidth=5", book.author())
+                        .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                    .isOk()
+                .expectBody(BookFacets.class)
+                    .isEqualTo(facets);
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    public void whenGetBooksAsNdjsonThenShouldStreamBooks(@CsvToBook Book book) {
+        given(bookService.streamBookList(null))
+                .willReturn(Flux.just(book, book));
+
+        var books = webClient
+                .get()
+                    .uri("/books")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                    .isOk()
+                .expectHeader()
+                    .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Book.class)
+                    .getResponseBody();
+
+        StepVerifier.create(books)
+                .expectNext(book, book)
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    public void whenGetBooksByIsbnsThenShouldReturnFoundAndMissing(@CsvToBook Book book) {
+        var lookup = new BookLookup(List.of(book), List.of("1234561239"));
+        given(bookService.viewBookDetails(List.of(book.isbn(), "1234561239")))
+                .willReturn(Mono.just(lookup));
+
+        webClient
+                .get()
+                    .uri("/books?isbn=" + book.isbn() + ",1234561239")
+                        .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                    .isOk()
+                .expectBody(BookLookup.class)
+                    .isEqualTo(lookup);
+    }
+
     @ParameterizedTest
-    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    public void whenGetChangesSinceOffsetThenShouldStreamEvents(@CsvToBook Book book) {
+        var change = new BookChange(7L, 42L, book.isbn(), BookChange.Type.CREATED, 1);
+        given(bookChangeRelay.changesSince(new BookChangeOffset(41, 6)))
+                .willReturn(Flux.just(change));
+
+        var events = webClient
+                .get()
+                    .uri("/books/changes?since=41-6")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus()
+                    .isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<BookChange>>() {})
+                    .getResponseBody();
+
+        StepVerifier.create(events)
+                .expectNextMatches(event -> "42-7".equals(event.id())
+                        && "CREATED".equals(event.event())
+                        && book.isbn().equals(event.data().isbn())
+                        && event.data().version() == 1)
+                .verifyComplete();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = "41-6")
+    public void whenGetChangesWithLastEventIdThenShouldResumeFromIt(String lastEventId) {
+        given(bookChangeRelay.changesSince(BookChangeOffset.parse(lastEventId)))
+                .willReturn(Flux.empty());
+
+        webClient
+                .get()
+                    .uri("/books/changes?since=1-1")
+                        .header(BookController.LAST_EVENT_ID_HEADER, lastEventId)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus()
+                    .isOk();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "42", "a-b", "-" })
+    public void whenGetChangesWithInvalidOffsetThenShouldReturn400(String since) {
+        webClient
+                .get()
+                    .uri("/books/changes?since={since}", since)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus()
+                    .isBadRequest();
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    public void whenSearchBooksThenShouldReturnRankedBooks(@CsvToBook Book book) {
+        given(bookService.searchBooks("zara", BookSearchMode.PREFIX, 1, 10))
+                .willReturn(Flux.just(book));
+
+        webClient
+                .get()
+                    .uri("/books/search?q=zara&mode=PREFIX&page=1&limit=10")
+                        .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                    .isOk()
+                .expectBodyList(Book.class)
+                    .contains(book);
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
     public void whenGetBookExistingAndAuthenticatedThenShouldReturn200(@CsvToBook Book book) {
         given(bookService.viewBookDetails(book.isbn()))
                 .willReturn(Mono.just(book));
@@ -62,7 +314,7 @@ class BookControllerTests {
     }
 
     @ParameterizedTest
-    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
     public void whenGetBookExistingAndNotAuthenticatedThenShouldReturn200(@CsvToBook Book book) {
         given(bookService.viewBookDetails(book.isbn()))
                 .willReturn(Mono.just(book));
@@ -79,7 +331,89 @@ class BookControllerTests {
     }
 
     @ParameterizedTest
-    @ValueSource(strings = { "1234567890", "1234567891", "1234567892" })
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    public void whenGetBookThenShouldReturnETagAndLastModified(@CsvToBook Book book) {
+        var storedBook = storedVersionOf(book);
+        given(bookService.viewBookDetails(book.isbn()))
+                .willReturn(Mono.just(storedBook));
+
+        webClient
+                .get()
+                    .uri("/books/" + book.isbn())
+                        .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                    .isOk()
+                .expectHeader()
+                    .valueEquals(HttpHeaders.ETAG, "\"41-3\"")
+                .expectHeader()
+                    .lastModified(storedBook.lastModifiedDate().toEpochMilli());
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    public void whenGetBookWithMatchingETagThenShouldReturn304(@CsvToBook Book book) {
+        given(bookService.viewBookDetails(book.isbn()))
+                .willReturn(Mono.just(storedVersionOf(book)));
+
+        webClient
+                .get()
+                    .uri("/books/" + book.isbn())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .ifNoneMatch("\"41-3\"")
+                .exchange()
+                .expectStatus()
+                    .isNotModified()
+                .expectBody()
+                    .isEmpty();
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    public void whenGetBookNotModifiedSinceThenShouldReturn304(@CsvToBook Book book) {
+        var storedBook = storedVersionOf(book);
+        given(bookService.viewBookDetails(book.isbn()))
+                .willReturn(Mono.just(storedBook));
+
+        webClient
+                .get()
+                    .uri("/books/" + book.isbn())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .ifModifiedSince(storedBook.lastModifiedDate().atZone(ZoneOffset.UTC))
+                .exchange()
+                .expectStatus()
+                    .isNotModified();
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    public void whenGetBooksWithMatchingETagThenShouldReturn304(@CsvToBook Book book) {
+        given(bookService.viewBookPage(BookFilter.NONE, BookSort.DEFAULT, null, null))
+                .willReturn(Mono.just(new BookPage(List.of(storedVersionOf(book)), null)));
+
+        var eTag = webClient
+                .get()
+                    .uri("/books")
+                        .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                    .isOk()
+                .returnResult(Book.class)
+                    .getResponseHeaders()
+                    .getETag();
+
+        webClient
+                .get()
+                    .uri("/books")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus()
+                    .isNotModified();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "123456789X", "1234567814", "1234567822" })
     public void whenGetBookNotExistingAndAuthenticatedThenShouldReturn404(String isbn) {
         given(bookService.viewBookDetails(isbn))
                 .willReturn(Mono.error(new BookNotFoundException(isbn)));
@@ -100,7 +434,7 @@ class BookControllerTests {
     }
 
     @ParameterizedTest
-    @ValueSource(strings = { "1234567890", "1234567891", "1234567892" })
+    @ValueSource(strings = { "123456789X", "1234567814", "1234567822" })
     public void whenGetBookNotExistingAndNotAuthenticatedThenShouldReturn404(String isbn) {
         given(bookService.viewBookDetails(isbn))
                 .willReturn(Mono.error(new BookNotFoundException(isbn)));
@@ -117,7 +451,24 @@ class BookControllerTests {
     }
 
     @ParameterizedTest
-    @ValueSource(strings = { "1234567890", "1234567891", "1234567892" })
+    @ValueSource(strings = { "1234567890", "978030640615" })
+    public void whenGetBookWithInvalidIsbnThenShouldReturn400(String isbn) {
+        given(bookService.viewBookDetails(isbn))
+                .willReturn(Mono.error(new InvalidIsbnException(isbn)));
+
+        webClient
+                .get()
+                    .uri("/books/" + isbn)
+                        .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                    .isBadRequest()
+                .expectBody(String.class)
+                    .isEqualTo("The ISBN " + isbn + " is not valid.");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "123456789X", "1234567814", "1234567822" })
     public void whenDeleteBookWithEmployeeRoleThenShouldReturn204(String isbn) {
         var mockedJwt = SecurityMockServerConfigurers.mockJwt()
                 .authorities(EMPLOYEE_ROLE);
@@ -134,7 +485,7 @@ class BookControllerTests {
     }
 
     @ParameterizedTest
-    @ValueSource(strings = { "1234567890", "1234567891", "1234567892" })
+    @ValueSource(strings = { "123456789X", "1234567814", "1234567822" })
     public void whenDeleteBookWithCustomerRoleThenShouldReturn403(String isbn) {
         var mockedJwt = SecurityMockServerConfigurers.mockJwt()
                 .authorities(CUSTOMER_ROLE);
@@ -152,7 +503,7 @@ class BookControllerTests {
     }
 
     @ParameterizedTest
-    @ValueSource(strings = { "1234567890", "1234567891", "1234567892" })
+    @ValueSource(strings = { "123456789X", "1234567814", "1234567822" })
     public void whenDeleteBookNotAuthenticatedThenShouldReturn401(String isbn) {
         webClient
                 .delete()
@@ -166,7 +517,7 @@ class BookControllerTests {
     }
 
     @ParameterizedTest
-    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
     public void whenPostBookWithEmployeeRoleThenShouldReturn201(@CsvToBook Book book) {
         given(bookService.addBookToCatalog(book))
                 .willReturn(Mono.just(book));
@@ -188,7 +539,7 @@ class BookControllerTests {
     }
 
     @ParameterizedTest
-    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
     public void whenPostBookWithCustomerRoleThenShouldReturn403(@CsvToBook Book book) {
         var mockedJwt = SecurityMockServerConfigurers.mockJwt()
                 .authorities(CUSTOMER_ROLE);
@@ -208,7 +559,7 @@ class BookControllerTests {
 
 
     @ParameterizedTest
-    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
     public void whenPostBookAndNotAuthenticatedThenShouldReturn403(@CsvToBook Book book) {
         webClient
                 .post()
@@ -223,7 +574,7 @@ class BookControllerTests {
     }
 
     @ParameterizedTest
-    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
     public void whenPutBookWithEmployeeRoleThenShouldReturn200(@CsvToBook Book book) {
         given(bookService.editBookDetails(book.isbn(), book))
                 .willReturn(Mono.just(book));
@@ -245,7 +596,29 @@ class BookControllerTests {
     }
 
     @ParameterizedTest
-    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    public void whenPutBookWithStaleVersionThenShouldReturn409(@CsvToBook Book book) {
+        given(bookService.editBookDetails(book.isbn(), book))
+                .willReturn(Mono.error(new BookVersionMismatchException(book.isbn(), book.version())));
+
+        var mockedJwt = SecurityMockServerConfigurers.mockJwt()
+                .authorities(EMPLOYEE_ROLE);
+
+        webClient
+                .mutateWith(mockedJwt)
+                    .put()
+                        .uri("/books/" + book.isbn())
+                            .contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue(book)
+                .exchange()
+                .expectStatus()
+                    .isEqualTo(409)
+                .expectBody(String.class)
+                    .isEqualTo("The book with ISBN " + book.isbn() + " is no longer at version " + book.version() + ".");
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
     public void whenPutBookWithCustomerRoleThenShouldReturn403(@CsvToBook Book book) {
             var mockedJwt = SecurityMockServerConfigurers.mockJwt()
                     .authorities(CUSTOMER_ROLE);
@@ -264,7 +637,7 @@ class BookControllerTests {
     }
 
     @ParameterizedTest
-    @CsvSource("1234567890, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
     public void whenPutBookAndNotAuthenticatedThenShouldReturn401(@CsvToBook Book book) {
         webClient
                 .put()
@@ -278,4 +651,54 @@ class BookControllerTests {
                     .isEmpty();
     }
 
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    public void whenPostBatchWithEmployeeRoleThenShouldReturnReport(@CsvToBook Book book) {
+        given(bookImportService.importBooks(any()))
+                .willReturn(Flux.just(
+                        BookImportResult.created(0, book.isbn()),
+                        BookImportResult.alreadyExists(1, book.isbn())));
+
+        var mockedJwt = SecurityMockServerConfigurers.mockJwt()
+                .authorities(EMPLOYEE_ROLE);
+
+        webClient
+                .mutateWith(mockedJwt)
+                    .post()
+                        .uri("/books/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                                .bodyValue(List.of(book, book))
+                .exchange()
+                .expectStatus()
+                    .isOk()
+                .expectBodyList(BookImportResult.class)
+                    .contains(
+                            BookImportResult.created(0, book.isbn()),
+                            BookImportResult.alreadyExists(1, book.isbn()));
+    }
+
+    @ParameterizedTest
+    @CsvSource("123456789X, Thus Spoke Zarathustra, Friedrich Nietzsche, Adelphi, 9.90")
+    public void whenPostBatchWithCustomerRoleThenShouldReturn403(@CsvToBook Book book) {
+        var mockedJwt = SecurityMockServerConfigurers.mockJwt()
+                .authorities(CUSTOMER_ROLE);
+
+        webClient
+                .mutateWith(mockedJwt)
+                    .post()
+                        .uri("/books/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue(List.of(book))
+                .exchange()
+                .expectStatus()
+                    .isForbidden();
+    }
+
+    private static Book storedVersionOf(Book book) {
+        var lastModifiedDate = Instant.parse("2023-03-01T10:15:30Z");
+        return new Book(41L, book.isbn(), book.title(), book.author(), book.publisher(), book.price(),
+                lastModifiedDate, lastModifiedDate, 3, null, null);
+    }
+
 }